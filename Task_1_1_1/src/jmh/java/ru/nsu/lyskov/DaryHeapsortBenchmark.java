@@ -0,0 +1,69 @@
+package ru.nsu.lyskov;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Сравнение бинарной, 4-арной и 8-арной кучи на случайных данных: сортировка
+ * и очередь IntHeap (заполнение через addAll и полное опустошение).
+ * Размер 10^9 требует около 8 ГБ памяти, поэтому не входит в параметры
+ * по умолчанию: -PjmhArgs="DaryHeapsortBenchmark -p size=1000000000 -jvmArgs -Xmx12g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DaryHeapsortBenchmark {
+    @Param({"1000000", "10000000", "100000000"})
+    private int size;
+
+    @Param({"2", "4", "8"})
+    private int arity;
+
+    private int[] source;
+    private int[] work;
+
+    /**
+     * Генерация исходных данных один раз на набор параметров.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Distribution.RANDOM.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] heapsort() {
+        System.arraycopy(source, 0, work, 0, size);
+        return Heap.heapsort(work, arity);
+    }
+
+    /**
+     * Заполнение очереди и извлечение всех элементов.
+     *
+     * @return Сумма извлечённых элементов (чтобы JIT не удалил вычисление).
+     */
+    @Benchmark
+    public long intHeap() {
+        IntHeap heap = new IntHeap(false, size, arity);
+        heap.addAll(source);
+        long checksum = 0;
+        while (!heap.isEmpty()) {
+            checksum += heap.pop();
+        }
+        return checksum;
+    }
+}
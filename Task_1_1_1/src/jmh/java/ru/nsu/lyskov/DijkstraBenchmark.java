@@ -0,0 +1,124 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Алгоритм Дейкстры на случайном ориентированном графе: IndexedPairingHeap
+ * с уменьшением ключа против PriorityQueue с "ленивым" удалением устаревших записей
+ * (в очередь попадает по записи на каждое улучшение расстояния).
+ * Граф хранится в формате CSR: рёбра вершины v - с offsets[v] по offsets[v + 1].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DijkstraBenchmark {
+    @Param({"10000", "1000000"})
+    private int vertices;
+
+    @Param({"4", "16"})
+    private int degree;
+
+    private int[] offsets;
+    private int[] targets;
+    private int[] weights;
+    private int[] distance;
+
+    /**
+     * Генерация графа один раз на набор параметров.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int edges = vertices * degree;
+        offsets = new int[vertices + 1];
+        targets = new int[edges];
+        weights = new int[edges];
+        for (int v = 0; v <= vertices; v++) {
+            offsets[v] = v * degree;
+        }
+        for (int e = 0; e < edges; e++) {
+            targets[e] = random.nextInt(vertices);
+            weights[e] = random.nextInt(1 << 16);
+        }
+        distance = new int[vertices];
+    }
+
+    /**
+     * Дейкстра на спаривающей куче с decreaseKey.
+     *
+     * @return Массив расстояний.
+     */
+    @Benchmark
+    public int[] pairingHeap() {
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[0] = 0;
+        IndexedPairingHeap heap = new IndexedPairingHeap(vertices);
+        heap.insert(0, 0);
+        while (!heap.isEmpty()) {
+            int v = heap.pollMin();
+            int base = distance[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = targets[e];
+                int candidate = base + weights[e];
+                if (candidate < distance[u]) {
+                    if (distance[u] == Integer.MAX_VALUE) {
+                        heap.insert(u, candidate);
+                    } else {
+                        heap.decreaseKey(u, candidate);
+                    }
+                    distance[u] = candidate;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Дейкстра на PriorityQueue: расстояние и вершина упакованы в один long,
+     * устаревшие записи пропускаются при извлечении.
+     *
+     * @return Массив расстояний.
+     */
+    @Benchmark
+    public int[] priorityQueue() {
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[0] = 0;
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        queue.add(0L);
+        while (!queue.isEmpty()) {
+            long entry = queue.poll();
+            int v = (int) entry;
+            int base = (int) (entry >>> 32);
+            if (base > distance[v]) {
+                continue;
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = targets[e];
+                int candidate = base + weights[e];
+                if (candidate < distance[u]) {
+                    distance[u] = candidate;
+                    queue.add((long) candidate << 32 | u);
+                }
+            }
+        }
+        return distance;
+    }
+}
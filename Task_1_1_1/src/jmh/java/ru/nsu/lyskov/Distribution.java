@@ -0,0 +1,76 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Распределения входных данных для бенчмарков сортировки.
+ */
+public enum Distribution {
+    /**
+     * Равномерно распределённые случайные числа.
+     */
+    RANDOM,
+    /**
+     * Уже отсортированный массив.
+     */
+    SORTED,
+    /**
+     * Массив, отсортированный по убыванию.
+     */
+    REVERSED,
+    /**
+     * "Пила": возрастающие участки длиной около корня из размера массива.
+     */
+    SAWTOOTH,
+    /**
+     * Случайные числа из 16 различных значений.
+     */
+    FEW_UNIQUE;
+
+    /**
+     * Генерация массива с фиксированным зерном, одинакового для всех сортировок.
+     *
+     * @param size Размер массива.
+     * @return Новый массив с данными этого распределения.
+     */
+    public int[] generate(int size) {
+        SplittableRandom random = new SplittableRandom(size);
+        int[] array = new int[size];
+        switch (this) {
+            case RANDOM:
+                for (int i = 0; i < size; i++) {
+                    array[i] = random.nextInt();
+                }
+                break;
+            case SORTED:
+            case REVERSED:
+                for (int i = 0; i < size; i++) {
+                    array[i] = random.nextInt();
+                }
+                Arrays.sort(array);
+                if (this == REVERSED) {
+                    for (int i = 0, j = size - 1; i < j; i++, j--) {
+                        int temp = array[i];
+                        array[i] = array[j];
+                        array[j] = temp;
+                    }
+                }
+                break;
+            case SAWTOOTH:
+                int period = Math.max(1, (int) Math.sqrt(size));
+                for (int i = 0; i < size; i++) {
+                    array[i] = i % period;
+                }
+                break;
+            case FEW_UNIQUE:
+                for (int i = 0; i < size; i++) {
+                    array[i] = random.nextInt(16);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown distribution " + this);
+        }
+        return array;
+    }
+}
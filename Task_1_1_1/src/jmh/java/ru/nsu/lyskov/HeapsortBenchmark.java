@@ -0,0 +1,102 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Сравнение heapsort, introsort, SortDispatcher и parallelHeapsort с библиотечными Arrays.sort и
+ * Arrays.parallelSort на разных размерах и распределениях.
+ * Каждый вызов сначала копирует исходные данные в заранее выделенный рабочий
+ * массив (System.arraycopy), поэтому замер не выделяет память, а стоимость
+ * копирования одинакова для всех сортировок.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class HeapsortBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    private int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "SAWTOOTH", "FEW_UNIQUE"})
+    private Distribution distribution;
+
+    private final SortDispatcher dispatcher = new SortDispatcher();
+    private int[] source;
+    private int[] work;
+
+    /**
+     * Генерация исходных данных один раз на набор параметров.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = distribution.generate(size);
+        work = new int[size];
+    }
+
+    /**
+     * Копия исходных данных в рабочий массив.
+     */
+    private int[] fresh() {
+        System.arraycopy(source, 0, work, 0, size);
+        return work;
+    }
+
+    @Benchmark
+    public int[] heapsort() {
+        return Heap.heapsort(fresh());
+    }
+
+    @Benchmark
+    public int[] introsort() {
+        return Heap.introsort(fresh());
+    }
+
+    @Benchmark
+    public SortStrategy dispatcher() {
+        return dispatcher.sort(fresh());
+    }
+
+    @Benchmark
+    public int[] parallelHeapsort() {
+        return Heap.parallelHeapsort(fresh());
+    }
+
+    /**
+     * Базовая линия: однопоточная сортировка из стандартной библиотеки.
+     *
+     * @return Отсортированный массив (чтобы JIT не удалил вычисление).
+     */
+    @Benchmark
+    public int[] arraysSort() {
+        int[] array = fresh();
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Базовая линия для parallelHeapsort: параллельная сортировка из стандартной библиотеки.
+     *
+     * @return Отсортированный массив.
+     */
+    @Benchmark
+    public int[] arraysParallelSort() {
+        int[] array = fresh();
+        Arrays.parallelSort(array);
+        return array;
+    }
+}
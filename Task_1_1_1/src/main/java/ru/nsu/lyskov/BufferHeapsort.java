@@ -0,0 +1,66 @@
+package ru.nsu.lyskov;
+
+import java.nio.IntBuffer;
+
+/**
+ * Пирамидальная сортировка чисел int прямо в буфере IntBuffer (в том числе
+ * в представлении asIntBuffer() прямого ByteBuffer или файла, отображённого
+ * в память), без копирования данных в массив в куче JVM.
+ * Используются только абсолютные get(index)/put(index, value), поэтому позиция
+ * и предел буфера не меняются. Алгоритм тот же, что в Heap.
+ */
+final class BufferHeapsort {
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private BufferHeapsort() {
+    }
+
+    /**
+     * Сортировка элементов буфера от позиции до предела.
+     *
+     * @param buffer Буфер, доступный для записи.
+     */
+    static void heapsort(IntBuffer buffer) {
+        int from = buffer.position();
+        int length = buffer.limit() - from;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(buffer, from, i, length, buffer.get(from + i));
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int last = buffer.get(from + i);
+            buffer.put(from + i, buffer.get(from));
+            siftDown(buffer, from, 0, i, last);
+        }
+    }
+
+    /**
+     * Просеивание "снизу вверх" в куче, лежащей в буфере с индекса from.
+     */
+    private static void siftDown(IntBuffer buffer, int from, int top, int unsorted, int value) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            int childValue = buffer.get(from + child);
+            if (child + 1 < unsorted) {
+                int rightValue = buffer.get(from + child + 1);
+                if (rightValue > childValue) {
+                    child++;
+                    childValue = rightValue;
+                }
+            }
+            buffer.put(from + hole, childValue);
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            int parentValue = buffer.get(from + parent);
+            if (parentValue >= value) {
+                break;
+            }
+            buffer.put(from + hole, parentValue);
+            hole = parent;
+        }
+        buffer.put(from + hole, value);
+    }
+}
@@ -0,0 +1,259 @@
+package ru.nsu.lyskov;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Внешняя сортировка двоичного файла чисел int, который может быть больше памяти JVM.
+ * Сортировка выполняется в два этапа:
+ * 1) входной файл читается через отображение в память (FileChannel.map) кусками,
+ * каждый из которых помещается в бюджет памяти; кусок сортируется кучей (Heap)
+ * и записывается во временный файл ("серию");
+ * 2) серии сливаются k-путевым слиянием: "турнирная" куча IndexedIntHeap хранит
+ * номера серий с ключом, равным текущему элементу серии. Каждая серия и выходной
+ * файл читаются и пишутся через скользящее окно отображения, так что все окна
+ * вместе тоже укладываются в бюджет памяти. Окно не бывает меньше MIN_WINDOW:
+ * иначе на каждые несколько чисел приходился бы вызов map. Если серий так много,
+ * что окна вышли бы меньше, слияние идёт в несколько проходов: группы серий
+ * сливаются в более длинные промежуточные серии.
+ * Файл - это последовательность 4-байтных чисел в заданном порядке байт
+ * (по умолчанию big-endian, как у DataOutputStream).
+ */
+public class ExternalHeapsort {
+    /**
+     * Наименьшее окно отображения в числах (страница памяти 4 КиБ).
+     */
+    static final int MIN_WINDOW = 4096 / Integer.BYTES;
+
+    private final int runLength;
+    private final Path tempDirectory;
+    private final ByteOrder byteOrder;
+
+    /**
+     * Конструктор с порядком байт big-endian.
+     *
+     * @param memoryBudget  Сколько байт памяти JVM можно занять под одну серию.
+     * @param tempDirectory Каталог для временных файлов серий.
+     */
+    public ExternalHeapsort(long memoryBudget, Path tempDirectory) {
+        this(memoryBudget, tempDirectory, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Конструктор с заданным порядком байт.
+     *
+     * @param memoryBudget  Сколько байт памяти JVM можно занять под одну серию.
+     * @param tempDirectory Каталог для временных файлов серий.
+     * @param byteOrder     Порядок байт чисел во входном и выходном файлах.
+     */
+    public ExternalHeapsort(long memoryBudget, Path tempDirectory, ByteOrder byteOrder) {
+        if (memoryBudget < Integer.BYTES) {
+            throw new IllegalArgumentException("Memory budget must hold at least one int");
+        }
+        runLength = (int) Math.min(memoryBudget / Integer.BYTES, Integer.MAX_VALUE / Integer.BYTES);
+        this.tempDirectory = tempDirectory;
+        this.byteOrder = byteOrder;
+    }
+
+    /**
+     * Сортировка файла input с записью результата в файл output.
+     * Временные файлы удаляются по завершении, в том числе при ошибке.
+     *
+     * @param input  Файл с исходными числами.
+     * @param output Файл для отсортированных чисел (перезаписывается).
+     * @throws IOException Ошибка чтения или записи файлов; EOFException, если
+     *                     размер входного файла не кратен 4 байтам.
+     */
+    public void sort(Path input, Path output) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try {
+            long count;
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size % Integer.BYTES != 0) {
+                    throw new EOFException("Input size is not a multiple of 4 bytes");
+                }
+                count = size / Integer.BYTES;
+                if (count <= runLength) {
+                    int[] run = readRun(channel, 0, (int) count);
+                    Heap.heapsort(run);
+                    writeRun(output, run, run.length);
+                    return;
+                }
+                int[] run = new int[runLength];
+                for (long start = 0; start < count; start += runLength) {
+                    int length = (int) Math.min(runLength, count - start);
+                    IntBuffer source = map(channel, FileChannel.MapMode.READ_ONLY, start, length);
+                    source.get(run, 0, length);
+                    Heap.heapsort(run, 0, length);
+                    Path runFile = Files.createTempFile(tempDirectory, "run", ".bin");
+                    runs.add(runFile);
+                    writeRun(runFile, run, length);
+                }
+            }
+            int fanIn = Math.max(2, runLength / MIN_WINDOW - 1);
+            while (runs.size() > fanIn) {
+                mergePass(runs, fanIn);
+            }
+            merge(runs, output, count);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Чтение всех чисел небольшого файла в массив.
+     */
+    private int[] readRun(FileChannel channel, long start, int length) throws IOException {
+        int[] run = new int[length];
+        if (length > 0) {
+            map(channel, FileChannel.MapMode.READ_ONLY, start, length).get(run);
+        }
+        return run;
+    }
+
+    /**
+     * Запись первых length чисел массива в файл через отображение в память.
+     */
+    private void writeRun(Path file, int[] run, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (length > 0) {
+                map(channel, FileChannel.MapMode.READ_WRITE, 0, length).put(run, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Промежуточный проход: каждые fanIn подряд идущих серий сливаются в одну новую
+     * серию, исходные файлы удаляются. Список runs заменяется новыми сериями, так что
+     * при ошибке sort удалит все ещё существующие временные файлы.
+     */
+    private void mergePass(List<Path> runs, int fanIn) throws IOException {
+        List<Path> merged = new ArrayList<>();
+        try {
+            while (!runs.isEmpty()) {
+                List<Path> group = runs.subList(0, Math.min(fanIn, runs.size()));
+                long count = 0;
+                for (Path run : group) {
+                    count += Files.size(run) / Integer.BYTES;
+                }
+                Path runFile = Files.createTempFile(tempDirectory, "run", ".bin");
+                merged.add(runFile);
+                merge(group, runFile, count);
+                for (Path run : group) {
+                    Files.delete(run);
+                }
+                group.clear();
+            }
+        } finally {
+            runs.addAll(merged);
+        }
+    }
+
+    /**
+     * K-путевое слияние серий. На вершине min-кучи - серия с наименьшим текущим
+     * элементом; после записи элемента ключ серии заменяется следующим её элементом
+     * (одно просеивание), а исчерпанная серия удаляется из кучи.
+     * Бюджет памяти делится поровну между окнами серий и окном выходного файла,
+     * но окно не меньше MIN_WINDOW: число серий за проход ограничено в sort так,
+     * чтобы окна укладывались в бюджет, если он не меньше трёх окон MIN_WINDOW.
+     * Окна не выходят за пределы метода: к удалению файлов серий (в sort)
+     * каналы закрыты, а отображения недостижимы.
+     */
+    private void merge(List<Path> runs, Path output, long count) throws IOException {
+        int runsCount = runs.size();
+        int window = Math.max(MIN_WINDOW, runLength / (runsCount + 1));
+        RunReader[] readers = new RunReader[runsCount];
+        try {
+            IndexedIntHeap tournament = new IndexedIntHeap(false, runsCount);
+            for (int i = 0; i < runsCount; i++) {
+                readers[i] = new RunReader(runs.get(i), window);
+                tournament.push(i, readers[i].next());
+            }
+
+            try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                for (long start = 0; start < count; start += window) {
+                    int length = (int) Math.min(window, count - start);
+                    IntBuffer destination = map(channel, FileChannel.MapMode.READ_WRITE,
+                            start, length);
+                    for (int i = 0; i < length; i++) {
+                        int run = tournament.peek();
+                        destination.put(tournament.peekKey());
+                        if (readers[run].hasNext()) {
+                            tournament.changeKey(run, readers[run].next());
+                        } else {
+                            tournament.pop();
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Отображение length чисел файла, начиная с числа start, в буфер с нужным порядком байт.
+     */
+    private IntBuffer map(FileChannel channel, FileChannel.MapMode mode,
+                          long start, int length) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, start * Integer.BYTES,
+                (long) length * Integer.BYTES);
+        return buffer.order(byteOrder).asIntBuffer();
+    }
+
+    /**
+     * Последовательное чтение серии через скользящее окно отображения:
+     * когда окно прочитано, отображается следующий кусок файла.
+     */
+    private final class RunReader {
+        private final FileChannel channel;
+        private final long count;
+        private final int window;
+        private long mapped = 0;
+        private IntBuffer buffer = IntBuffer.allocate(0);
+
+        RunReader(Path file, int window) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            count = channel.size() / Integer.BYTES;
+            this.window = window;
+        }
+
+        boolean hasNext() {
+            return buffer.hasRemaining() || mapped < count;
+        }
+
+        int next() throws IOException {
+            if (!buffer.hasRemaining()) {
+                int length = (int) Math.min(window, count - mapped);
+                buffer = map(channel, FileChannel.MapMode.READ_ONLY, mapped, length);
+                mapped += length;
+            }
+            return buffer.get();
+        }
+
+        void close() throws IOException {
+            buffer = null;
+            channel.close();
+        }
+    }
+}
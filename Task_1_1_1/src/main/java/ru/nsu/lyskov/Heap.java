@@ -1,12 +1,30 @@
 package ru.nsu.lyskov;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
 /**
  * Класс "Куча", экземпляр которого можно отсортировать по классическому алгоритму
  * пирамидальной сортировки (сортировка кучей).
  */
 public class Heap {
+    /**
+     * Допустимые значения арности кучи: от бинарной до 16-арной (16 чисел int
+     * занимают одну 64-байтную строку кэша).
+     */
+    static final int MIN_ARITY = 2;
+    static final int MAX_ARITY = 16;
+
     private final int[] array;
+    private final int from;
     private final int length;
+    private final int arity;
+    private final HeapsortProbe probe;
 
     /**
      * Конструктор класса "Куча", инициализирует final int[] array и его размер.
@@ -14,10 +32,17 @@ public class Heap {
      * статичный метод, а не экземпляр класса.
      *
      * @param array Массив, на основе которого создаётся куча.
+     * @param from  Индекс первого элемента кучи в массиве.
+     * @param to    Индекс, следующий за последним элементом кучи.
+     * @param arity Число потомков у каждого узла кучи.
+     * @param probe Наблюдатель за операциями сортировки (HeapsortProbe.NONE - без него).
      */
-    private Heap(int[] array) {
+    private Heap(int[] array, int from, int to, int arity, HeapsortProbe probe) {
         this.array = array;
-        length = array.length;
+        this.from = from;
+        this.arity = arity;
+        this.probe = probe;
+        length = to - from;
     }
 
     /**
@@ -29,58 +54,527 @@ public class Heap {
      * @return Отсортированный массив.
      */
     public static int[] heapsort(int[] array) {
-        Heap heap = new Heap(array);
+        heapsort(array, 0, array.length);
+        return array;
+    }
+
+    /**
+     * Адаптивная (интроспективная) сортировка: быстрая сортировка с медианой трёх,
+     * сортирующая сеть на маленьких участках и переход на heapsort при слишком глубокой
+     * рекурсии. В среднем быстрее heapsort, в худшем случае тоже O(n log n).
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Отсортированный массив.
+     */
+    public static int[] introsort(int[] array) {
+        Introsort.sort(array, 0, array.length);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка части массива [from, to). Используется
+     * параллельной и гибридными сортировками для сортировки отдельных участков.
+     *
+     * @param array Массив, часть которого необходимо отсортировать.
+     * @param from  Индекс первого сортируемого элемента.
+     * @param to    Индекс, следующий за последним сортируемым элементом.
+     */
+    static void heapsort(int[] array, int from, int to) {
+        heapsort(array, from, to, 2, HeapsortProbe.NONE);
+    }
+
+    /**
+     * Пирамидальная сортировка части массива [from, to) на d-арной куче
+     * с наблюдателем за операциями (см. InstrumentedHeapsort).
+     *
+     * @param array Массив, часть которого необходимо отсортировать.
+     * @param from  Индекс первого сортируемого элемента.
+     * @param to    Индекс, следующий за последним сортируемым элементом.
+     * @param arity Число потомков у каждого узла кучи.
+     * @param probe Наблюдатель.
+     */
+    static void heapsort(int[] array, int from, int to, int arity, HeapsortProbe probe) {
+        Heap heap = new Heap(array, from, to, arity, probe);
         heap.sort();
+    }
 
-        return heap.array;
+    /**
+     * Инструментированная пирамидальная сортировка: считает сравнения, перестановки,
+     * глубину просеивания и время и добавляет их в stats. Считаются операции той
+     * же реализации, что и у heapsort(int[]); в обычной сортировке точки
+     * наблюдения пусты и удаляются JIT. Если stats равен null, выполняется
+     * обычная сортировка.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @param stats Объект статистики (можно разделять между потоками) или null.
+     * @return Отсортированный массив.
+     */
+    public static int[] heapsort(int[] array, HeapsortStats stats) {
+        return heapsort(array, 2, stats);
+    }
+
+    /**
+     * Инструментированная пирамидальная сортировка на d-арной куче, как
+     * heapsort(int[], int), со статистикой, как heapsort(int[], HeapsortStats).
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @param arity Число потомков у каждого узла (от 2 до 16).
+     * @param stats Объект статистики или null.
+     * @return Отсортированный массив.
+     */
+    public static int[] heapsort(int[] array, int arity, HeapsortStats stats) {
+        if (stats == null) {
+            return heapsort(array, arity);
+        }
+        checkArity(arity);
+        InstrumentedHeapsort.heapsort(array, arity, stats);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка на d-арной куче: у узла i потомки лежат подряд
+     * в ячейках d * i + 1, ..., d * i + d. Высота кучи уменьшается в log2(d) раз,
+     * а все потомки узла попадают в одну-две строки кэша, поэтому на массивах,
+     * не помещающихся в кэш, 4- и 8-арная куча обычно быстрее бинарной, хотя
+     * и делает больше сравнений.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @param arity Число потомков у каждого узла (от 2 до 16).
+     * @return Отсортированный массив.
+     */
+    public static int[] heapsort(int[] array, int arity) {
+        checkArity(arity);
+        heapsort(array, 0, array.length, arity, HeapsortProbe.NONE);
+        return array;
+    }
+
+    /**
+     * Проверка арности кучи.
+     */
+    private static void checkArity(int arity) {
+        if (arity < MIN_ARITY || arity > MAX_ARITY) {
+            throw new IllegalArgumentException("Arity must be in [2..16]");
+        }
     }
 
     /**
-     * Процедура, приводящая часть массива к виду кучи.
+     * Пирамидальная сортировка массива long[] на месте без упаковки элементов.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Отсортированный массив.
+     */
+    public static long[] heapsort(long[] array) {
+        PrimitiveHeapsort.heapsort(array);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка массива double[] на месте без упаковки элементов.
+     * Порядок полный, как у Double.compare: -0.0 меньше 0.0, NaN - в конце массива.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Отсортированный массив.
+     */
+    public static double[] heapsort(double[] array) {
+        PrimitiveHeapsort.heapsort(array);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка массива float[] на месте без упаковки элементов.
+     * Порядок полный, как у Float.compare: -0.0f меньше 0.0f, NaN - в конце массива.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Отсортированный массив.
+     */
+    public static float[] heapsort(float[] array) {
+        PrimitiveHeapsort.heapsort(array);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка массива short[] на месте без упаковки элементов.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Отсортированный массив.
+     */
+    public static short[] heapsort(short[] array) {
+        PrimitiveHeapsort.heapsort(array);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка массива char[] на месте без упаковки элементов.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Отсортированный массив.
+     */
+    public static char[] heapsort(char[] array) {
+        PrimitiveHeapsort.heapsort(array);
+        return array;
+    }
+
+    /**
+     * Сортировка индексов по ключу (argsort) без упаковки: keys[result[0]],
+     * keys[result[1]], ... идут по неубыванию, равные ключи - в порядке индексов.
+     *
+     * @param keys Массив ключей, не изменяется.
+     * @return Перестановка индексов массива keys.
+     */
+    public static int[] argsort(int[] keys) {
+        return PrimitiveHeapsort.argsort(keys);
+    }
+
+    /**
+     * Сортировка индексов по ключу (argsort) без упаковки: keys[result[0]],
+     * keys[result[1]], ... идут по неубыванию, равные ключи - в порядке индексов.
+     *
+     * @param keys Массив ключей, не изменяется.
+     * @return Перестановка индексов массива keys.
+     */
+    public static int[] argsort(long[] keys) {
+        return PrimitiveHeapsort.argsort(keys);
+    }
+
+    /**
+     * Сортировка индексов по ключу (argsort) без упаковки: keys[result[0]],
+     * keys[result[1]], ... идут по неубыванию, равные ключи - в порядке индексов.
+     *
+     * @param keys Массив ключей, не изменяется.
+     * @return Перестановка индексов массива keys.
+     */
+    public static int[] argsort(double[] keys) {
+        return PrimitiveHeapsort.argsort(keys);
+    }
+
+    /**
+     * Сортировка на месте чисел буфера от его позиции до предела. Подходит для
+     * прямых (off-heap) буферов и файлов, отображённых в память: данные не
+     * копируются в кучу JVM, позиция и предел буфера не меняются.
+     *
+     * @param buffer Буфер, доступный для записи.
+     * @return Тот же буфер.
+     */
+    public static IntBuffer heapsort(IntBuffer buffer) {
+        BufferHeapsort.heapsort(buffer);
+        return buffer;
+    }
+
+    /**
+     * Сортировка на месте 4-байтных чисел байтового буфера (от позиции до предела)
+     * в заданном порядке байт. Порядок байт самого буфера не меняется; неполный
+     * хвост из 1-3 байт не трогается.
+     *
+     * @param buffer    Байтовый буфер, доступный для записи.
+     * @param byteOrder Порядок байт, в котором записаны числа.
+     * @return Тот же буфер.
+     */
+    public static ByteBuffer heapsort(ByteBuffer buffer, ByteOrder byteOrder) {
+        BufferHeapsort.heapsort(buffer.duplicate().order(byteOrder).asIntBuffer());
+        return buffer;
+    }
+
+    /**
+     * Отбор k наибольших чисел буфера (от позиции до предела) без копирования
+     * буфера и без изменения его позиции.
+     *
+     * @param buffer Буфер чисел.
+     * @param k      Сколько наибольших чисел нужно отобрать.
+     * @return Массив из не более чем k наибольших чисел по убыванию.
+     */
+    public static int[] topK(IntBuffer buffer, int k) {
+        return new TopKCollector(k).addAll(buffer.duplicate()).result();
+    }
+
+    /**
+     * Отбор k наибольших 4-байтных чисел байтового буфера (от позиции до предела)
+     * в заданном порядке байт, без копирования буфера и без изменения его позиции.
+     *
+     * @param buffer    Байтовый буфер.
+     * @param byteOrder Порядок байт, в котором записаны числа.
+     * @param k         Сколько наибольших чисел нужно отобрать.
+     * @return Массив из не более чем k наибольших чисел по убыванию.
+     */
+    public static int[] topK(ByteBuffer buffer, ByteOrder byteOrder, int k) {
+        return topK(buffer.duplicate().order(byteOrder).asIntBuffer(), k);
+    }
+
+    /**
+     * Пирамидальная сортировка массива объектов по компаратору.
+     *
+     * @param array      Массив, который необходимо отсортировать.
+     * @param comparator Компаратор, задающий порядок элементов.
+     * @param <T>        Тип элементов массива.
+     * @return Отсортированный массив.
+     */
+    public static <T> T[] heapsort(T[] array, Comparator<? super T> comparator) {
+        ObjectHeapsort.heapsort(array, comparator);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка массива объектов по возрастанию ключа int. Ключи
+     * вычисляются один раз и сортируются вместе с элементами в массиве int[].
+     *
+     * @param array     Массив, который необходимо отсортировать.
+     * @param extractor Функция, вычисляющая ключ элемента.
+     * @param <T>       Тип элементов массива.
+     * @return Отсортированный массив.
+     */
+    public static <T> T[] heapsortByInt(T[] array, ToIntFunction<? super T> extractor) {
+        ObjectHeapsort.heapsortByInt(array, extractor);
+        return array;
+    }
+
+    /**
+     * Пирамидальная сортировка массива объектов по возрастанию ключа long.
+     *
+     * @param array     Массив, который необходимо отсортировать.
+     * @param extractor Функция, вычисляющая ключ элемента.
+     * @param <T>       Тип элементов массива.
+     * @return Отсортированный массив.
+     */
+    public static <T> T[] heapsortByLong(T[] array, ToLongFunction<? super T> extractor) {
+        ObjectHeapsort.heapsortByLong(array, extractor);
+        return array;
+    }
+
+    /**
+     * Отбор k наибольших элементов массива за O(n log k) без сортировки всего массива.
+     * Для отбора из потока данных, поступающих частями, используется TopKCollector.
+     *
+     * @param array Массив, не изменяется.
+     * @param k     Сколько наибольших элементов нужно отобрать.
+     * @return Массив из min(k, array.length) наибольших элементов по убыванию.
+     */
+    public static int[] topK(int[] array, int k) {
+        return new TopKCollector(k).addAll(array).result();
+    }
+
+    /**
+     * Частичная сортировка на месте за O(n log k): после вызова последние k элементов
+     * массива - это k наибольших элементов по возрастанию (как после полной сортировки),
+     * остальные элементы переставлены в произвольном порядке.
+     * Хвост массива используется как min-куча из k элементов: каждый элемент начала
+     * массива, больший вершины, меняется с ней местами.
+     *
+     * @param array Массив, который необходимо частично отсортировать.
+     * @param k     Количество наибольших элементов, которые нужно поставить на место.
+     * @return Тот же массив.
+     */
+    public static int[] partialSort(int[] array, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        int length = array.length;
+        k = Math.min(k, length);
+        if (k == 0) {
+            return array;
+        }
+        int from = length - k;
+        for (int i = (k - 2) / 2; i >= 0; i--) {
+            siftDownMin(array, from, k, i, array[from + i]);
+        }
+        for (int i = 0; i < from; i++) {
+            int value = array[i];
+            if (value > array[from]) {
+                array[i] = array[from];
+                siftDownMin(array, from, k, 0, value);
+            }
+        }
+        heapsort(array, from, length);
+        return array;
+    }
+
+    /**
+     * Просеивание вниз в min-куче, лежащей в массиве с позиции from.
+     *
+     * @param array Массив.
+     * @param from  Индекс корня кучи в массиве.
+     * @param size  Размер кучи.
+     * @param hole  Позиция (относительно from), с которой начинается просеивание.
+     * @param value Элемент, который нужно поместить в позицию hole.
+     */
+    private static void siftDownMin(int[] array, int from, int size, int hole, int value) {
+        int child;
+        while ((child = hole * 2 + 1) < size) {
+            if (child + 1 < size && array[from + child + 1] < array[from + child]) {
+                child++;
+            }
+            if (array[from + child] >= value) {
+                break;
+            }
+            array[from + hole] = array[from + child];
+            hole = child;
+        }
+        array[from + hole] = value;
+    }
+
+    /**
+     * Параллельная сортировка в общем пуле ForkJoinPool.commonPool(). Массив делится на
+     * участки, которые сортируются кучей независимо, после чего участки попарно
+     * сливаются (слияние тоже выполняется параллельно). Результат совпадает с heapsort.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Отсортированный массив.
+     */
+    public static int[] parallelHeapsort(int[] array) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return parallelHeapsort(array, pool,
+                ParallelHeapsortTask.defaultThreshold(array.length, pool.getParallelism()));
+    }
+
+    /**
+     * Параллельная сортировка в заданном пуле с заданным порогом.
+     *
+     * @param array     Массив, который необходимо отсортировать.
+     * @param pool      Пул потоков, в котором выполняется сортировка.
+     * @param threshold Размер участка, начиная с которого массив больше не делится,
+     *                  а сортируется кучей в одном потоке.
+     * @return Отсортированный массив.
+     */
+    public static int[] parallelHeapsort(int[] array, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        if (array.length <= threshold || pool.getParallelism() == 1) {
+            return heapsort(array);
+        }
+        int[] buffer = new int[array.length];
+        pool.invoke(new ParallelHeapsortTask(array, buffer, 0, array.length, threshold, false));
+        return array;
+    }
+
+    /**
+     * Итеративная процедура, приводящая часть массива к виду кучи ("просеивание вниз").
+     * Рекурсия заменена циклом, чтобы не платить за вызов метода на каждом уровне кучи.
      *
      * @param unsorted   Число элементов массива, начиная с первого, которые необходимо
      *                   привести к виду кучи. (В процессе сортировки элементы в конце
      *                   располагаются в нужном порядке и сортировать их не надо).
-     * @param rootedNode Индекс элемента, который будет являться корнем бинарного
+     * @param rootedNode Индекс элемента, который будет являться корнем
      *                   дерева (кучи).
      */
     private void heapify(int unsorted, int rootedNode) {
-        int largest = rootedNode;
-        int left = rootedNode * 2 + 1;
-        int right = rootedNode * 2 + 2;
+        int[] array = this.array;
+        int from = this.from;
+        HeapsortProbe probe = this.probe;
+        int value = array[from + rootedNode];
+        int hole = rootedNode;
+        int depth = 0;
+        int child;
 
-        if (left < unsorted && array[left] > array[largest]) {
-            largest = left;
+        while ((child = hole * arity + 1) < unsorted) {
+            child = largestChild(child, unsorted);
+            probe.compared(1);
+            if (array[from + child] <= value) {
+                break;
+            }
+            array[from + hole] = array[from + child];
+            probe.moved();
+            depth++;
+            hole = child;
         }
-        if (right < unsorted && array[right] > array[largest]) {
-            largest = right;
+        array[from + hole] = value;
+        probe.sifted(depth);
+    }
+
+    /**
+     * Просеивание "снизу вверх" (эвристика Флойда). Вместо корня кучи ставится
+     * элемент value, но он не сравнивается с потомками на каждом уровне: сначала
+     * "дыра" опускается до листа по пути из больших потомков (одно сравнение на
+     * уровень), затем value поднимается от листа до своего места. Так как
+     * вставляемый элемент взят из конца массива и почти всегда мал, подъём
+     * короткий, и число сравнений сокращается примерно вдвое.
+     *
+     * @param unsorted Число элементов массива, образующих кучу.
+     * @param value    Элемент, который нужно поместить в кучу вместо корня.
+     */
+    private void siftDownBottomUp(int unsorted, int value) {
+        int[] array = this.array;
+        int from = this.from;
+        HeapsortProbe probe = this.probe;
+        int hole = 0;
+        int depth = 0;
+        int child;
+
+        while ((child = hole * arity + 1) < unsorted) {
+            child = largestChild(child, unsorted);
+            array[from + hole] = array[from + child];
+            probe.moved();
+            depth++;
+            hole = child;
         }
 
-        if (largest != rootedNode) {
-            int temp = array[rootedNode];
-            array[rootedNode] = array[largest];
-            array[largest] = temp;
-            heapify(unsorted, largest);
+        while (hole > 0) {
+            int parent = arity == 2 ? (hole - 1) >>> 1 : (hole - 1) / arity;
+            probe.compared(1);
+            if (array[from + parent] >= value) {
+                break;
+            }
+            array[from + hole] = array[from + parent];
+            probe.moved();
+            depth--;
+            hole = parent;
         }
+        array[from + hole] = value;
+        probe.sifted(depth);
+    }
+
+    /**
+     * Поиск наибольшего из потомков узла. Для бинарной кучи - одно сравнение
+     * без цикла, для d-арной - проход по d соседним ячейкам.
+     *
+     * @param firstChild Индекс первого потомка.
+     * @param unsorted   Число элементов массива, образующих кучу.
+     * @return Индекс наибольшего потомка.
+     */
+    private int largestChild(int firstChild, int unsorted) {
+        int[] array = this.array;
+        int from = this.from;
+        if (arity == 2) {
+            int second = firstChild + 1;
+            if (second >= unsorted) {
+                return firstChild;
+            }
+            probe.compared(1);
+            return array[from + second] > array[from + firstChild] ? second : firstChild;
+        }
+        int largest = firstChild;
+        int lastChild = Math.min(firstChild + arity, unsorted);
+        probe.compared(lastChild - firstChild - 1);
+        for (int child = firstChild + 1; child < lastChild; child++) {
+            if (array[from + child] > array[from + largest]) {
+                largest = child;
+            }
+        }
+        return largest;
     }
 
     /**
      * Классический алгоритм бинарной сортировки. Корень кучи (максимальный элемент)
      * перемещается в конец неотсортированной части массива, оставшаяся часть снова
      * приводится к виду кучи. Процесс повторяется, пока не будет отсортирован
-     * последний элемент в куче.
+     * последний элемент в куче. Последние уровни кучи (не более 32 элементов)
+     * и короткие массивы целиком досортировываются сортирующей сетью.
      */
     private void sort() {
-        for (int i = length / 2 - 1; i >= 0; i--) {
+        if (length <= SortingNetwork.MAX_SIZE) {
+            SortingNetwork.sort(array, from, from + length);
+            probe.compared(SortingNetwork.comparators(length));
+            return;
+        }
+        for (int i = (length - 2) / arity; i >= 0; i--) {
             heapify(length, i);
         }
 
-        for (int i = length - 1; i >= 0; i--) {
-            int temp = array[0];
-            array[0] = array[i];
-            array[i] = temp;
-
-            heapify(i, 0);
+        for (int i = length - 1; i >= SortingNetwork.MAX_SIZE; i--) {
+            int last = array[from + i];
+            array[from + i] = array[from];
+            probe.moved();
+            siftDownBottomUp(i, last);
         }
+        SortingNetwork.sort(array, from, from + SortingNetwork.MAX_SIZE);
+        probe.compared(SortingNetwork.comparators(SortingNetwork.MAX_SIZE));
     }
 }
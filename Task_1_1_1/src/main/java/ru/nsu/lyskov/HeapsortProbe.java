@@ -0,0 +1,37 @@
+package ru.nsu.lyskov;
+
+/**
+ * Точки наблюдения за пирамидальной сортировкой Heap: сравнения элементов,
+ * перемещения элементов и глубина каждого просеивания. Методы этого класса
+ * пусты; обычная сортировка использует общий экземпляр NONE, и JIT удаляет
+ * вызовы. Счётчик (InstrumentedHeapsort) переопределяет методы.
+ */
+class HeapsortProbe {
+    /**
+     * Наблюдатель, который ничего не делает.
+     */
+    static final HeapsortProbe NONE = new HeapsortProbe();
+
+    /**
+     * Выполнено count сравнений элементов.
+     *
+     * @param count Число сравнений.
+     */
+    void compared(int count) {
+    }
+
+    /**
+     * Элемент перемещён в другую ячейку: обмен корня с последним элементом
+     * или шаг просеивания на соседний уровень.
+     */
+    void moved() {
+    }
+
+    /**
+     * Завершено просеивание.
+     *
+     * @param depth Итоговое смещение элемента вниз, в уровнях кучи.
+     */
+    void sifted(int depth) {
+    }
+}
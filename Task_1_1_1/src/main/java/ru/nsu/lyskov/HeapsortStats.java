@@ -0,0 +1,119 @@
+package ru.nsu.lyskov;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Потокобезопасная статистика инструментированной пирамидальной сортировки
+ * (Heap.heapsort(int[], HeapsortStats)). Счётчики - LongAdder и LongAccumulator,
+ * поэтому один объект можно без блокировок разделять между потоками. Сама
+ * сортировка считает в локальных переменных и обновляет объект один раз в конце.
+ * Статистику можно опубликовать через JMX методом register.
+ */
+public class HeapsortStats implements HeapsortStatsMXBean {
+    private final LongAdder sortCount = new LongAdder();
+    private final LongAdder elementCount = new LongAdder();
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder swaps = new LongAdder();
+    private final LongAccumulator maxSiftDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    /**
+     * Отношение сравнений к n * log2(n) хранится как биты неотрицательного double:
+     * для таких чисел порядок битов совпадает с порядком значений.
+     */
+    private final LongAccumulator maxComparisonRatio = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Регистрация статистики в платформенном MBeanServer под именем
+     * ru.nsu.lyskov:type=HeapsortStats,name=&lt;name&gt;.
+     *
+     * @param name Имя экземпляра статистики.
+     * @return Имя, под которым зарегистрирован объект.
+     * @throws JMException Некорректное имя или объект с таким именем уже зарегистрирован.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("ru.nsu.lyskov:type=HeapsortStats,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Учёт одной сортировки.
+     *
+     * @param length      Количество элементов.
+     * @param comparisons Количество сравнений.
+     * @param swaps       Количество перестановок.
+     * @param siftDepth   Наибольшая глубина просеивания.
+     * @param nanos       Время сортировки в наносекундах.
+     */
+    void record(int length, long comparisons, long swaps, int siftDepth, long nanos) {
+        sortCount.increment();
+        elementCount.add(length);
+        this.comparisons.add(comparisons);
+        this.swaps.add(swaps);
+        maxSiftDepth.accumulate(siftDepth);
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (length > 1) {
+            double ratio = comparisons / (length * (Math.log(length) / Math.log(2)));
+            maxComparisonRatio.accumulate(Double.doubleToLongBits(ratio));
+        }
+    }
+
+    @Override
+    public long getSortCount() {
+        return sortCount.sum();
+    }
+
+    @Override
+    public long getElementCount() {
+        return elementCount.sum();
+    }
+
+    @Override
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    @Override
+    public long getSwaps() {
+        return swaps.sum();
+    }
+
+    @Override
+    public long getMaxSiftDepth() {
+        return maxSiftDepth.get();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public double getMaxComparisonRatio() {
+        return Double.longBitsToDouble(maxComparisonRatio.get());
+    }
+
+    @Override
+    public void reset() {
+        sortCount.reset();
+        elementCount.reset();
+        comparisons.reset();
+        swaps.reset();
+        maxSiftDepth.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        maxComparisonRatio.reset();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.nsu.lyskov;
+
+/**
+ * Интерфейс управления (JMX) для статистики инструментированной пирамидальной
+ * сортировки. Все счётчики накапливаются с момента создания или последнего reset().
+ */
+public interface HeapsortStatsMXBean {
+    /**
+     * Количество выполненных сортировок.
+     *
+     * @return Число сортировок.
+     */
+    long getSortCount();
+
+    /**
+     * Суммарное количество отсортированных элементов.
+     *
+     * @return Число элементов.
+     */
+    long getElementCount();
+
+    /**
+     * Суммарное количество сравнений элементов.
+     *
+     * @return Число сравнений.
+     */
+    long getComparisons();
+
+    /**
+     * Суммарное количество перестановок элементов.
+     *
+     * @return Число перестановок.
+     */
+    long getSwaps();
+
+    /**
+     * Наибольшая глубина одного просеивания (в уровнях кучи).
+     *
+     * @return Глубина просеивания.
+     */
+    long getMaxSiftDepth();
+
+    /**
+     * Суммарное время сортировок.
+     *
+     * @return Время в наносекундах.
+     */
+    long getTotalNanos();
+
+    /**
+     * Время самой долгой сортировки.
+     *
+     * @return Время в наносекундах.
+     */
+    long getMaxNanos();
+
+    /**
+     * Наибольшее отношение числа сравнений к n * log2(n) по всем сортировкам.
+     * На случайных данных оно близко к 1; чем оно больше, тем ближе входные
+     * данные к худшему случаю сортировки.
+     *
+     * @return Отношение сравнений к n * log2(n).
+     */
+    double getMaxComparisonRatio();
+
+    /**
+     * Обнуление всех счётчиков.
+     */
+    void reset();
+}
@@ -0,0 +1,237 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Индексированная очередь с приоритетом: элементами являются идентификаторы
+ * (неотрицательные int), у каждого из которых есть ключ int. В отличие от IntHeap,
+ * хранит карту "идентификатор -&gt; позиция в куче", поэтому ключ уже добавленного
+ * идентификатора можно изменить за O(log n) (decrease-key в алгоритме Дейкстры,
+ * обновление головы серии при слиянии и т.п.).
+ * Как и в IntHeap, ключи min-кучи хранятся в виде ~key.
+ */
+public class IndexedIntHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int mask;
+    private int[] heap;
+    private int[] keys;
+    private int[] positions;
+    private int size = 0;
+
+    /**
+     * Конструктор пустой кучи с ёмкостью по умолчанию.
+     *
+     * @param maxHeap true для max-кучи, false для min-кучи.
+     */
+    public IndexedIntHeap(boolean maxHeap) {
+        this(maxHeap, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Конструктор пустой кучи, рассчитанной на идентификаторы [0, capacity).
+     * Большие идентификаторы тоже допустимы, массивы при этом растут.
+     *
+     * @param maxHeap  true для max-кучи, false для min-кучи.
+     * @param capacity Ожидаемое количество идентификаторов.
+     */
+    public IndexedIntHeap(boolean maxHeap, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        mask = maxHeap ? 0 : -1;
+        capacity = Math.max(capacity, 1);
+        heap = new int[capacity];
+        keys = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Добавление идентификатора с ключом.
+     *
+     * @param id  Идентификатор, которого ещё нет в куче.
+     * @param key Ключ идентификатора.
+     */
+    public void push(int id, int key) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative");
+        }
+        ensureCapacity(id + 1);
+        if (positions[id] >= 0) {
+            throw new IllegalArgumentException("Id " + id + " is already in the heap");
+        }
+        keys[id] = key ^ mask;
+        siftUp(size++, id);
+    }
+
+    /**
+     * Изменение ключа идентификатора, уже находящегося в куче. Ключ может как
+     * уменьшиться, так и увеличиться: элемент просеивается в нужную сторону.
+     *
+     * @param id  Идентификатор.
+     * @param key Новый ключ.
+     */
+    public void changeKey(int id, int key) {
+        int position = positionOf(id);
+        int oldKey = keys[id];
+        keys[id] = key ^ mask;
+        if (keys[id] > oldKey) {
+            siftUp(position, id);
+        } else {
+            siftDown(position, id);
+        }
+    }
+
+    /**
+     * Проверка наличия идентификатора в куче.
+     *
+     * @param id Идентификатор.
+     * @return true, если идентификатор находится в куче.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < positions.length && positions[id] >= 0;
+    }
+
+    /**
+     * Ключ идентификатора, находящегося в куче.
+     *
+     * @param id Идентификатор.
+     * @return Ключ.
+     */
+    public int keyOf(int id) {
+        positionOf(id);
+        return keys[id] ^ mask;
+    }
+
+    /**
+     * Идентификатор на вершине кучи.
+     *
+     * @return Идентификатор с наибольшим (наименьшим для min-кучи) ключом.
+     */
+    public int peek() {
+        checkNotEmpty();
+        return heap[0];
+    }
+
+    /**
+     * Ключ идентификатора на вершине кучи.
+     *
+     * @return Наибольший (наименьший для min-кучи) ключ.
+     */
+    public int peekKey() {
+        checkNotEmpty();
+        return keys[heap[0]] ^ mask;
+    }
+
+    /**
+     * Удаление вершины кучи.
+     *
+     * @return Идентификатор, находившийся на вершине.
+     */
+    public int pop() {
+        checkNotEmpty();
+        int top = heap[0];
+        positions[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * Количество идентификаторов в куче.
+     *
+     * @return Размер кучи.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверка кучи на пустоту.
+     *
+     * @return true, если в куче нет идентификаторов.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Поднятие идентификатора от позиции hole к корню.
+     */
+    private void siftUp(int hole, int id) {
+        int key = keys[id];
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            if (keys[heap[parent]] >= key) {
+                break;
+            }
+            move(heap[parent], hole);
+            hole = parent;
+        }
+        move(id, hole);
+    }
+
+    /**
+     * Просеивание идентификатора вниз от позиции hole.
+     */
+    private void siftDown(int hole, int id) {
+        int key = keys[id];
+        int child;
+        while ((child = hole * 2 + 1) < size) {
+            if (child + 1 < size && keys[heap[child + 1]] > keys[heap[child]]) {
+                child++;
+            }
+            if (keys[heap[child]] <= key) {
+                break;
+            }
+            move(heap[child], hole);
+            hole = child;
+        }
+        move(id, hole);
+    }
+
+    /**
+     * Запись идентификатора в позицию кучи с обновлением карты позиций.
+     */
+    private void move(int id, int position) {
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Позиция идентификатора в куче с проверкой его наличия.
+     */
+    private int positionOf(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Id " + id + " is not in the heap");
+        }
+        return positions[id];
+    }
+
+    /**
+     * Увеличение массивов (в полтора раза, но не меньше требуемого).
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > positions.length) {
+            int oldCapacity = positions.length;
+            int newCapacity = Math.max(capacity, oldCapacity + (oldCapacity >> 1));
+            heap = Arrays.copyOf(heap, newCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+            positions = Arrays.copyOf(positions, newCapacity);
+            Arrays.fill(positions, oldCapacity, newCapacity, -1);
+        }
+    }
+
+    /**
+     * Проверка, что в куче есть элементы.
+     */
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+    }
+}
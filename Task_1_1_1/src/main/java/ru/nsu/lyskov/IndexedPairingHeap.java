@@ -0,0 +1,415 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Индексированная спаривающая (pairing) min-куча: элементами являются идентификаторы
+ * (неотрицательные int) с ключами int. Узлы не являются объектами: дерево хранится
+ * в параллельных массивах keys, child (первый потомок), sibling (следующий брат)
+ * и prev (предыдущий брат, а для первого потомка - родитель).
+ * Массивы принадлежат пулу узлов (Pool), который могут разделять несколько куч;
+ * идентификатор при этом находится не более чем в одной куче пула.
+ * Сложность: insert и peekMin - O(1); pollMin и decreaseKey - амортизированно
+ * O(log n); meld куч одного пула - O(1) (одно связывание корней); meld куч из
+ * разных пулов - O(m), где m - размер присоединяемой кучи: записи её узлов
+ * копируются.
+ * В отличие от IndexedIntHeap, уменьшение ключа не просеивает элемент, а отрезает
+ * его поддерево и связывает с корнем, поэтому в алгоритме Дейкстры очередь
+ * не разрастается "ленивыми" дубликатами.
+ */
+public class IndexedPairingHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+    /**
+     * Значение prev у идентификатора, которого нет в куче.
+     */
+    private static final int ABSENT = -2;
+
+    private final Pool pool;
+    private int number;
+    private int root = NONE;
+    private int size = 0;
+
+    /**
+     * Конструктор пустой кучи со своим пулом ёмкости по умолчанию.
+     */
+    public IndexedPairingHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Конструктор пустой кучи со своим пулом, рассчитанным на идентификаторы
+     * [0, capacity). Большие идентификаторы тоже допустимы, массивы при этом растут.
+     *
+     * @param capacity Ожидаемое количество идентификаторов.
+     */
+    public IndexedPairingHeap(int capacity) {
+        this(new Pool(capacity));
+    }
+
+    /**
+     * Конструктор пустой кучи в общем пуле узлов: кучи одного пула сливаются за O(1).
+     *
+     * @param pool Пул узлов.
+     */
+    public IndexedPairingHeap(Pool pool) {
+        this.pool = pool;
+        this.number = pool.newHeap();
+    }
+
+    /**
+     * Добавление идентификатора с ключом за O(1).
+     *
+     * @param id  Идентификатор, которого ещё нет в куче.
+     * @param key Ключ идентификатора.
+     */
+    public void insert(int id, int key) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative");
+        }
+        Pool pool = this.pool;
+        pool.ensureCapacity(id + 1);
+        if (pool.prev[id] != ABSENT) {
+            throw new IllegalArgumentException("Id " + id + " is already in a heap of the pool");
+        }
+        pool.keys[id] = key;
+        pool.child[id] = NONE;
+        pool.sibling[id] = NONE;
+        pool.prev[id] = NONE;
+        pool.owner[id] = number;
+        root = pool.link(root, id);
+        size++;
+    }
+
+    /**
+     * Уменьшение ключа идентификатора, уже находящегося в куче. Поддерево элемента
+     * отрезается от родителя и связывается с корнем.
+     *
+     * @param id  Идентификатор.
+     * @param key Новый ключ, не больше текущего.
+     */
+    public void decreaseKey(int id, int key) {
+        checkContains(id);
+        Pool pool = this.pool;
+        if (key > pool.keys[id]) {
+            throw new IllegalArgumentException("New key is greater than the current key");
+        }
+        pool.keys[id] = key;
+        if (id == root) {
+            return;
+        }
+        int previous = pool.prev[id];
+        int next = pool.sibling[id];
+        if (pool.child[previous] == id) {
+            pool.child[previous] = next;
+        } else {
+            pool.sibling[previous] = next;
+        }
+        if (next != NONE) {
+            pool.prev[next] = previous;
+        }
+        pool.sibling[id] = NONE;
+        root = pool.link(root, id);
+    }
+
+    /**
+     * Идентификатор с наименьшим ключом.
+     *
+     * @return Идентификатор на вершине кучи.
+     */
+    public int peekMin() {
+        checkNotEmpty();
+        return root;
+    }
+
+    /**
+     * Наименьший ключ.
+     *
+     * @return Ключ идентификатора на вершине кучи.
+     */
+    public int peekMinKey() {
+        checkNotEmpty();
+        return pool.keys[root];
+    }
+
+    /**
+     * Удаление вершины кучи: потомки корня сливаются в два прохода
+     * (попарно слева направо, затем справа налево).
+     *
+     * @return Идентификатор, находившийся на вершине.
+     */
+    public int pollMin() {
+        checkNotEmpty();
+        int top = root;
+        root = pool.mergePairs(pool.child[top]);
+        pool.prev[top] = ABSENT;
+        size--;
+        return top;
+    }
+
+    /**
+     * Перенос всех элементов кучи other в эту кучу; other становится пустой.
+     * Для куч одного пула это одно связывание корней за O(1): узлы other остаются
+     * на месте, а её номер объединяется с номером этой кучи. Кучи из разных пулов
+     * сливаются копированием записей узлов за O(m), где m - размер other;
+     * их идентификаторы не должны пересекаться.
+     *
+     * @param other Присоединяемая куча.
+     */
+    public void meld(IndexedPairingHeap other) {
+        if (other == this || other.size == 0) {
+            return;
+        }
+        if (other.pool == pool) {
+            pool.union(other.number, number);
+            other.number = pool.newHeap();
+        } else {
+            copyNodes(other);
+        }
+        root = pool.link(root, other.root);
+        size += other.size;
+        other.root = NONE;
+        other.size = 0;
+    }
+
+    /**
+     * Копирование записей узлов кучи из другого пула в пул этой кучи.
+     */
+    private void copyNodes(IndexedPairingHeap other) {
+        Pool source = other.pool;
+        int[] nodes = other.nodes();
+        for (int id : nodes) {
+            if (id < pool.prev.length && pool.prev[id] != ABSENT) {
+                throw new IllegalArgumentException("Id " + id + " is in both heaps");
+            }
+        }
+        pool.ensureCapacity(source.prev.length);
+        for (int id : nodes) {
+            pool.keys[id] = source.keys[id];
+            pool.child[id] = source.child[id];
+            pool.sibling[id] = source.sibling[id];
+            pool.prev[id] = source.prev[id];
+            pool.owner[id] = number;
+            source.prev[id] = ABSENT;
+        }
+    }
+
+    /**
+     * Проверка наличия идентификатора в куче.
+     *
+     * @param id Идентификатор.
+     * @return true, если идентификатор находится в куче.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < pool.prev.length && pool.prev[id] != ABSENT
+                && pool.find(pool.owner[id]) == number;
+    }
+
+    /**
+     * Ключ идентификатора, находящегося в куче.
+     *
+     * @param id Идентификатор.
+     * @return Ключ.
+     */
+    public int keyOf(int id) {
+        checkContains(id);
+        return pool.keys[id];
+    }
+
+    /**
+     * Количество идентификаторов в куче.
+     *
+     * @return Размер кучи.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверка кучи на пустоту.
+     *
+     * @return true, если в куче нет идентификаторов.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Все идентификаторы кучи (обход дерева по child и sibling).
+     */
+    private int[] nodes() {
+        int[] nodes = new int[size];
+        int count = 0;
+        nodes[count++] = root;
+        for (int i = 0; i < count; i++) {
+            for (int node = pool.child[nodes[i]]; node != NONE; node = pool.sibling[node]) {
+                nodes[count++] = node;
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Проверка наличия идентификатора в куче.
+     */
+    private void checkContains(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Id " + id + " is not in the heap");
+        }
+    }
+
+    /**
+     * Проверка, что в куче есть элементы.
+     */
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+    }
+
+    /**
+     * Пул узлов: массивы записей узлов, общие для нескольких куч. Кучам пула
+     * выдаются номера; owner хранит номер кучи, в которую узел был вставлен,
+     * а слияние куч объединяет их номера в системе непересекающихся множеств
+     * (heaps), поэтому принадлежность узла куче проверяется почти за O(1).
+     */
+    public static final class Pool {
+        private int[] keys;
+        private int[] child;
+        private int[] sibling;
+        private int[] prev;
+        private int[] owner;
+        private int[] heaps = new int[4];
+        private int heapCount = 0;
+
+        /**
+         * Конструктор пула, рассчитанного на идентификаторы [0, capacity).
+         *
+         * @param capacity Ожидаемое количество идентификаторов.
+         */
+        public Pool(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Capacity must not be negative");
+            }
+            capacity = Math.max(capacity, 1);
+            keys = new int[capacity];
+            child = new int[capacity];
+            sibling = new int[capacity];
+            prev = new int[capacity];
+            owner = new int[capacity];
+            Arrays.fill(prev, ABSENT);
+        }
+
+        /**
+         * Новый номер кучи (отдельное множество).
+         */
+        private int newHeap() {
+            if (heapCount == heaps.length) {
+                heaps = Arrays.copyOf(heaps, heapCount * 2);
+            }
+            heaps[heapCount] = heapCount;
+            return heapCount++;
+        }
+
+        /**
+         * Номер кучи, в которую слита куча с номером heap (со сжатием путей
+         * "через одного").
+         */
+        private int find(int heap) {
+            while (heaps[heap] != heap) {
+                heaps[heap] = heaps[heaps[heap]];
+                heap = heaps[heap];
+            }
+            return heap;
+        }
+
+        /**
+         * Слияние кучи с номером from в кучу с номером into (into - корень множества).
+         */
+        private void union(int from, int into) {
+            heaps[from] = into;
+        }
+
+        /**
+         * Связывание двух корней: корень с большим ключом становится первым
+         * потомком другого.
+         */
+        private int link(int first, int second) {
+            if (first == NONE) {
+                prev[second] = NONE;
+                return second;
+            }
+            if (second == NONE) {
+                return first;
+            }
+            if (keys[second] < keys[first]) {
+                int swap = first;
+                first = second;
+                second = swap;
+            }
+            int firstChild = child[first];
+            sibling[second] = firstChild;
+            if (firstChild != NONE) {
+                prev[firstChild] = second;
+            }
+            prev[second] = first;
+            child[first] = second;
+            sibling[first] = NONE;
+            prev[first] = NONE;
+            return first;
+        }
+
+        /**
+         * Двухпроходное слияние списка братьев без рекурсии: на первом проходе пары
+         * связываются и складываются в стек через sibling, на втором стек сворачивается.
+         */
+        private int mergePairs(int first) {
+            int stack = NONE;
+            while (first != NONE) {
+                int second = sibling[first];
+                int pair;
+                if (second == NONE) {
+                    pair = first;
+                    first = NONE;
+                } else {
+                    int next = sibling[second];
+                    pair = link(first, second);
+                    first = next;
+                }
+                sibling[pair] = stack;
+                stack = pair;
+            }
+            if (stack == NONE) {
+                return NONE;
+            }
+            int result = stack;
+            stack = sibling[result];
+            sibling[result] = NONE;
+            prev[result] = NONE;
+            while (stack != NONE) {
+                int next = sibling[stack];
+                sibling[stack] = NONE;
+                result = link(result, stack);
+                stack = next;
+            }
+            return result;
+        }
+
+        /**
+         * Увеличение массивов (в полтора раза, но не меньше требуемого).
+         */
+        private void ensureCapacity(int capacity) {
+            if (capacity > prev.length) {
+                int oldCapacity = prev.length;
+                int newCapacity = Math.max(capacity, oldCapacity + (oldCapacity >> 1));
+                keys = Arrays.copyOf(keys, newCapacity);
+                child = Arrays.copyOf(child, newCapacity);
+                sibling = Arrays.copyOf(sibling, newCapacity);
+                prev = Arrays.copyOf(prev, newCapacity);
+                owner = Arrays.copyOf(owner, newCapacity);
+                Arrays.fill(prev, oldCapacity, newCapacity, ABSENT);
+            }
+        }
+    }
+}
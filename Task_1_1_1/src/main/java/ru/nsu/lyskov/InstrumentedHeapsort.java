@@ -0,0 +1,51 @@
+package ru.nsu.lyskov;
+
+/**
+ * Счётчик операций пирамидальной сортировки: подключается к той же реализации
+ * Heap, что и обычная сортировка (с учётом арности кучи и досортировки сетью),
+ * через точки наблюдения HeapsortProbe. Счётчики - поля экземпляра, который
+ * живёт одну сортировку, поэтому в цикле нет обращений к разделяемым атомарным
+ * переменным. Операции сортирующей сети считаются сравнениями; перемещениями
+ * они не считаются, так как сеть записывает min/max без ветвлений.
+ */
+final class InstrumentedHeapsort extends HeapsortProbe {
+    private long comparisons = 0;
+    private long swaps = 0;
+    private int maxSiftDepth = 0;
+
+    /**
+     * Конструктор приватный: экземпляр создаётся на одну сортировку методом heapsort.
+     */
+    private InstrumentedHeapsort() {
+    }
+
+    /**
+     * Сортировка массива с записью статистики.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @param arity Число потомков у каждого узла кучи.
+     * @param stats Объект статистики.
+     */
+    static void heapsort(int[] array, int arity, HeapsortStats stats) {
+        long start = System.nanoTime();
+        InstrumentedHeapsort probe = new InstrumentedHeapsort();
+        Heap.heapsort(array, 0, array.length, arity, probe);
+        stats.record(array.length, probe.comparisons, probe.swaps, probe.maxSiftDepth,
+                System.nanoTime() - start);
+    }
+
+    @Override
+    void compared(int count) {
+        comparisons += count;
+    }
+
+    @Override
+    void moved() {
+        swaps++;
+    }
+
+    @Override
+    void sifted(int depth) {
+        maxSiftDepth = Math.max(maxSiftDepth, depth);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.nsu.lyskov;
+
+/**
+ * Интроспективная сортировка: быстрая сортировка с выбором опорного элемента
+ * медианой трёх (для больших участков - "медианой медиан" из девяти элементов),
+ * сортирующей сетью (SortingNetwork) для маленьких участков и переходом на пирамидальную
+ * сортировку (Heap), если глубина рекурсии превысила 2 * log2(n). Так сохраняется
+ * гарантия O(n log n) в худшем случае при скорости быстрой сортировки в среднем.
+ */
+final class Introsort {
+    /**
+     * Участки не длиннее этого порога сортируются сортирующей сетью.
+     */
+    static final int NETWORK_THRESHOLD = 16;
+
+    /**
+     * Начиная с этой длины опорный элемент выбирается из девяти элементов.
+     */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private Introsort() {
+    }
+
+    /**
+     * Сортировка части массива [from, to).
+     *
+     * @param array Массив.
+     * @param from  Индекс первого сортируемого элемента.
+     * @param to    Индекс, следующий за последним сортируемым элементом.
+     */
+    static void sort(int[] array, int from, int to) {
+        int length = to - from;
+        int depthLimit = length > 0 ? 2 * (31 - Integer.numberOfLeadingZeros(length)) : 0;
+        sort(array, from, to, depthLimit);
+    }
+
+    /**
+     * Сортировка с ограничением глубины. Рекурсия идёт в меньшую часть, а большая
+     * обрабатывается в цикле, поэтому глубина стека не превышает log2(n).
+     *
+     * @param array      Массив.
+     * @param from       Индекс первого сортируемого элемента.
+     * @param to         Индекс, следующий за последним сортируемым элементом.
+     * @param depthLimit Сколько ещё разбиений допустимо до перехода на heapsort.
+     */
+    static void sort(int[] array, int from, int to, int depthLimit) {
+        while (to - from > NETWORK_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                Heap.heapsort(array, from, to);
+                return;
+            }
+            int split = partition(array, from, to);
+            if (split - from < to - split) {
+                sort(array, from, split, depthLimit);
+                from = split;
+            } else {
+                sort(array, split, to, depthLimit);
+                to = split;
+            }
+        }
+        SortingNetwork.sort(array, from, to);
+    }
+
+    /**
+     * Разбиение Хоара. Медиана ставится в начало участка и служит опорным
+     * элементом, поэтому обе части получаются непустыми.
+     *
+     * @return Индекс split: элементы [from, split) не больше опорного,
+     *         элементы [split, to) не меньше опорного.
+     */
+    private static int partition(int[] array, int from, int to) {
+        swap(array, from, choosePivot(array, from, to));
+        int pivot = array[from];
+        int left = from - 1;
+        int right = to;
+        while (true) {
+            do {
+                left++;
+            } while (array[left] < pivot);
+            do {
+                right--;
+            } while (array[right] > pivot);
+            if (left >= right) {
+                return right + 1;
+            }
+            swap(array, left, right);
+        }
+    }
+
+    /**
+     * Выбор индекса опорного элемента: медиана трёх или ninther Тьюки.
+     */
+    private static int choosePivot(int[] array, int from, int to) {
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (to - from < NINTHER_THRESHOLD) {
+            return median(array, from, middle, last);
+        }
+        int step = (to - from) / 8;
+        return median(array,
+                median(array, from, from + step, from + 2 * step),
+                median(array, middle - step, middle, middle + step),
+                median(array, last - 2 * step, last - step, last));
+    }
+
+    /**
+     * Индекс медианы трёх элементов.
+     */
+    private static int median(int[] array, int first, int second, int third) {
+        int a = array[first];
+        int b = array[second];
+        int c = array[third];
+        if (a < b) {
+            return b < c ? second : (a < c ? third : first);
+        }
+        return a < c ? first : (b < c ? third : second);
+    }
+
+    /**
+     * Обмен двух элементов массива.
+     */
+    private static void swap(int[] array, int first, int second) {
+        int temp = array[first];
+        array[first] = array[second];
+        array[second] = temp;
+    }
+}
@@ -0,0 +1,226 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Очередь с приоритетом для чисел long без упаковки в Long (в отличие от
+ * PriorityQueue&lt;Long&gt;). Элементы хранятся в куче (по умолчанию бинарной) на примитивном
+ * массиве, который растёт в полтора раза при заполнении.
+ * Куча может быть как max-кучей (на вершине наибольший элемент), так и min-кучей.
+ * Для min-кучи элементы хранятся в виде ~x: побитовое отрицание в точности
+ * обращает порядок long, поэтому одна и та же max-куча обслуживает оба случая
+ * без ветвлений в цикле просеивания.
+ * Арность кучи настраивается: в 4- или 8-арной куче потомки узла лежат рядом
+ * в памяти, и на больших очередях просеивание реже промахивается мимо кэша.
+ * Класс - намеренная копия IntHeap для long: обобщения Java не работают с
+ * примитивными типами, а общий код через упаковку лишил бы очередь смысла.
+ * API классов совпадает, одинаковое поведение проверяет LongHeapTest.
+ */
+public class LongHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final long mask;
+    private final int arity;
+    private long[] elements;
+    private int size = 0;
+
+    /**
+     * Конструктор пустой кучи с ёмкостью по умолчанию.
+     *
+     * @param maxHeap true для max-кучи, false для min-кучи.
+     */
+    public LongHeap(boolean maxHeap) {
+        this(maxHeap, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Конструктор пустой кучи с заданной начальной ёмкостью.
+     *
+     * @param maxHeap         true для max-кучи, false для min-кучи.
+     * @param initialCapacity Начальный размер внутреннего массива.
+     */
+    public LongHeap(boolean maxHeap, int initialCapacity) {
+        this(maxHeap, initialCapacity, 2);
+    }
+
+    /**
+     * Конструктор пустой d-арной кучи.
+     *
+     * @param maxHeap         true для max-кучи, false для min-кучи.
+     * @param initialCapacity Начальный размер внутреннего массива.
+     * @param arity           Число потомков у каждого узла (от 2 до 16).
+     */
+    public LongHeap(boolean maxHeap, int initialCapacity, int arity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        if (arity < Heap.MIN_ARITY || arity > Heap.MAX_ARITY) {
+            throw new IllegalArgumentException("Arity must be in [2..16]");
+        }
+        this.arity = arity;
+        mask = maxHeap ? 0L : -1L;
+        elements = new long[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Добавление элемента в кучу за O(log n).
+     *
+     * @param value Добавляемый элемент.
+     */
+    public void push(long value) {
+        ensureCapacity(size + 1);
+        siftUp(size++, value ^ mask);
+    }
+
+    /**
+     * Добавление всех элементов массива. Элементы дописываются в конец, после чего
+     * куча перестраивается целиком за O(n), что быстрее n отдельных вставок.
+     *
+     * @param values Добавляемые элементы.
+     */
+    public void addAll(long[] values) {
+        ensureCapacity(size + values.length);
+        for (long value : values) {
+            elements[size++] = value ^ mask;
+        }
+        for (int i = (size - 2) / arity; i >= 0; i--) {
+            siftDown(i, elements[i]);
+        }
+    }
+
+    /**
+     * Вершина кучи без её удаления.
+     *
+     * @return Наибольший (для max-кучи) или наименьший (для min-кучи) элемент.
+     */
+    public long peek() {
+        checkNotEmpty();
+        return elements[0] ^ mask;
+    }
+
+    /**
+     * Удаление вершины кучи за O(log n).
+     *
+     * @return Удалённый элемент.
+     */
+    public long pop() {
+        checkNotEmpty();
+        long top = elements[0];
+        long last = elements[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top ^ mask;
+    }
+
+    /**
+     * Замена вершины кучи новым элементом. Эквивалентно pop() и push(value),
+     * но выполняет одно просеивание вместо двух.
+     *
+     * @param value Новый элемент.
+     * @return Удалённая вершина.
+     */
+    public long replaceTop(long value) {
+        checkNotEmpty();
+        long top = elements[0];
+        siftDown(0, value ^ mask);
+        return top ^ mask;
+    }
+
+    /**
+     * Количество элементов в куче.
+     *
+     * @return Размер кучи.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверка кучи на пустоту.
+     *
+     * @return true, если в куче нет элементов.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Копия элементов кучи в порядке их хранения (не отсортированном).
+     *
+     * @return Новый массив из size() элементов.
+     */
+    public long[] toArray() {
+        long[] result = Arrays.copyOf(elements, size);
+        for (int i = 0; i < size; i++) {
+            result[i] ^= mask;
+        }
+        return result;
+    }
+
+    /**
+     * Удаление всех элементов. Внутренний массив сохраняется для повторного использования.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Поднятие элемента от позиции hole к корню, пока он больше родителя.
+     */
+    private void siftUp(int hole, long value) {
+        long[] elements = this.elements;
+        while (hole > 0) {
+            int parent = (hole - 1) / arity;
+            if (elements[parent] >= value) {
+                break;
+            }
+            elements[hole] = elements[parent];
+            hole = parent;
+        }
+        elements[hole] = value;
+    }
+
+    /**
+     * Просеивание элемента вниз от позиции hole, как в Heap.heapify.
+     */
+    private void siftDown(int hole, long value) {
+        long[] elements = this.elements;
+        int size = this.size;
+        int child;
+        while ((child = hole * arity + 1) < size) {
+            int lastChild = Math.min(child + arity, size);
+            for (int next = child + 1; next < lastChild; next++) {
+                if (elements[next] > elements[child]) {
+                    child = next;
+                }
+            }
+            if (elements[child] <= value) {
+                break;
+            }
+            elements[hole] = elements[child];
+            hole = child;
+        }
+        elements[hole] = value;
+    }
+
+    /**
+     * Увеличение внутреннего массива (в полтора раза, но не меньше требуемого).
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            int newCapacity = Math.max(capacity, elements.length + (elements.length >> 1));
+            elements = Arrays.copyOf(elements, newCapacity);
+        }
+    }
+
+    /**
+     * Проверка, что в куче есть элементы.
+     */
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ru.nsu.lyskov;
+
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Пирамидальная сортировка массивов объектов: по компаратору и по примитивному ключу.
+ * При сортировке по ключу ключи один раз вычисляются в массив int[] или long[],
+ * и куча строится по этому массиву, а элементы переставляются вместе с ключами.
+ * Так в цикле просеивания нет ни повторного вызова функции ключа, ни виртуального
+ * вызова компаратора, только сравнение примитивов.
+ */
+final class ObjectHeapsort {
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private ObjectHeapsort() {
+    }
+
+    /**
+     * Сортировка массива объектов по компаратору.
+     *
+     * @param array      Массив, который необходимо отсортировать.
+     * @param comparator Компаратор, задающий порядок.
+     * @param <T>        Тип элементов массива.
+     */
+    static <T> void heapsort(T[] array, Comparator<? super T> comparator) {
+        int length = array.length;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, comparator, i, length, array[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            T last = array[i];
+            array[i] = array[0];
+            siftDown(array, comparator, 0, i, last);
+        }
+    }
+
+    /**
+     * Просеивание "снизу вверх" для массива объектов.
+     */
+    private static <T> void siftDown(T[] array, Comparator<? super T> comparator,
+                                     int top, int unsorted, T value) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && comparator.compare(array[child + 1], array[child]) > 0) {
+                child++;
+            }
+            array[hole] = array[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (comparator.compare(value, array[parent]) <= 0) {
+                break;
+            }
+            array[hole] = array[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Сортировка массива объектов по ключу int.
+     *
+     * @param array     Массив, который необходимо отсортировать.
+     * @param extractor Функция, вычисляющая ключ элемента (вызывается один раз на элемент).
+     * @param <T>       Тип элементов массива.
+     */
+    static <T> void heapsortByInt(T[] array, ToIntFunction<? super T> extractor) {
+        int length = array.length;
+        int[] keys = new int[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = extractor.applyAsInt(array[i]);
+        }
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, keys, i, length, array[i], keys[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            T last = array[i];
+            int lastKey = keys[i];
+            array[i] = array[0];
+            keys[i] = keys[0];
+            siftDown(array, keys, 0, i, last, lastKey);
+        }
+    }
+
+    /**
+     * Просеивание "снизу вверх" пары (элемент, ключ int).
+     */
+    private static <T> void siftDown(T[] array, int[] keys, int top, int unsorted,
+                                     T value, int key) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && keys[child + 1] > keys[child]) {
+                child++;
+            }
+            array[hole] = array[child];
+            keys[hole] = keys[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (key <= keys[parent]) {
+                break;
+            }
+            array[hole] = array[parent];
+            keys[hole] = keys[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+        keys[hole] = key;
+    }
+
+    /**
+     * Сортировка массива объектов по ключу long.
+     *
+     * @param array     Массив, который необходимо отсортировать.
+     * @param extractor Функция, вычисляющая ключ элемента (вызывается один раз на элемент).
+     * @param <T>       Тип элементов массива.
+     */
+    static <T> void heapsortByLong(T[] array, ToLongFunction<? super T> extractor) {
+        int length = array.length;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = extractor.applyAsLong(array[i]);
+        }
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, keys, i, length, array[i], keys[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            T last = array[i];
+            long lastKey = keys[i];
+            array[i] = array[0];
+            keys[i] = keys[0];
+            siftDown(array, keys, 0, i, last, lastKey);
+        }
+    }
+
+    /**
+     * Просеивание "снизу вверх" пары (элемент, ключ long).
+     */
+    private static <T> void siftDown(T[] array, long[] keys, int top, int unsorted,
+                                     T value, long key) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && keys[child + 1] > keys[child]) {
+                child++;
+            }
+            array[hole] = array[child];
+            keys[hole] = keys[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (key <= keys[parent]) {
+                break;
+            }
+            array[hole] = array[parent];
+            keys[hole] = keys[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+        keys[hole] = key;
+    }
+}
@@ -0,0 +1,204 @@
+package ru.nsu.lyskov;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Задача ForkJoin для параллельной сортировки: участок массива делится пополам,
+ * половины сортируются параллельно, затем сливаются. Участки размером не больше
+ * порога сортируются кучей (Heap) в одном потоке.
+ * Чтобы не копировать данные обратно после каждого слияния, массив и буфер
+ * меняются ролями на каждом уровне рекурсии ("пинг-понг").
+ */
+@SuppressWarnings("serial")
+class ParallelHeapsortTask extends RecursiveAction {
+    /**
+     * Минимальный размер участка, который имеет смысл делить между потоками.
+     */
+    private static final int MIN_THRESHOLD = 1 << 13;
+
+    private final int[] array;
+    private final int[] buffer;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final boolean toBuffer;
+
+    /**
+     * Конструктор задачи.
+     *
+     * @param array     Сортируемый массив.
+     * @param buffer    Вспомогательный массив того же размера.
+     * @param from      Индекс первого элемента участка.
+     * @param to        Индекс, следующий за последним элементом участка.
+     * @param threshold Размер участка, который сортируется без деления.
+     * @param toBuffer  Флаг, указывающий, что результат нужно положить в buffer, а не в array.
+     */
+    ParallelHeapsortTask(int[] array, int[] buffer, int from, int to,
+                         int threshold, boolean toBuffer) {
+        this.array = array;
+        this.buffer = buffer;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+        this.toBuffer = toBuffer;
+    }
+
+    /**
+     * Порог по умолчанию: примерно четыре участка на поток, чтобы сгладить
+     * неравномерную загрузку, но не мельче MIN_THRESHOLD.
+     *
+     * @param length      Длина сортируемого массива.
+     * @param parallelism Число потоков пула.
+     * @return Размер участка, который сортируется без деления.
+     */
+    static int defaultThreshold(int length, int parallelism) {
+        return Math.max(MIN_THRESHOLD, length / (parallelism * 4));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= threshold) {
+            Heap.heapsort(array, from, to);
+            if (toBuffer) {
+                System.arraycopy(array, from, buffer, from, to - from);
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        invokeAll(new ParallelHeapsortTask(array, buffer, from, middle, threshold, !toBuffer),
+                new ParallelHeapsortTask(array, buffer, middle, to, threshold, !toBuffer));
+
+        int[] source = toBuffer ? array : buffer;
+        int[] destination = toBuffer ? buffer : array;
+        new MergeTask(source, destination, from, middle, middle, to, from, threshold).compute();
+    }
+
+    /**
+     * Параллельное слияние двух отсортированных участков source в destination.
+     * Больший участок делится пополам, его средний элемент ищется бинарным поиском
+     * в меньшем, и две получившиеся пары участков сливаются независимо.
+     * Слияния не длиннее SortingNetwork.MAX_SIZE выполняются сетью без ветвлений.
+     */
+    @SuppressWarnings("serial")
+    static class MergeTask extends RecursiveAction {
+        private final int[] source;
+        private final int[] destination;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final int at;
+        private final int threshold;
+
+        /**
+         * Конструктор задачи слияния.
+         *
+         * @param source      Массив с отсортированными участками.
+         * @param destination Массив, в который записывается результат.
+         * @param leftFrom    Начало левого участка.
+         * @param leftTo      Конец левого участка.
+         * @param rightFrom   Начало правого участка.
+         * @param rightTo     Конец правого участка.
+         * @param at          Индекс в destination, с которого пишется результат.
+         * @param threshold   Размер, начиная с которого слияние не делится.
+         */
+        MergeTask(int[] source, int[] destination, int leftFrom, int leftTo,
+                  int rightFrom, int rightTo, int at, int threshold) {
+            this.source = source;
+            this.destination = destination;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.at = at;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLength = leftTo - leftFrom;
+            int rightLength = rightTo - rightFrom;
+            // Короткие слияния (в том числе двух одиночных элементов, деление которых
+            // дало бы задачу, равную текущей) выполняет сортирующая сеть.
+            if (leftLength + rightLength <= SortingNetwork.MAX_SIZE) {
+                System.arraycopy(source, leftFrom, destination, at, leftLength);
+                System.arraycopy(source, rightFrom, destination, at + leftLength, rightLength);
+                SortingNetwork.merge(destination, at, at + leftLength,
+                        at + leftLength + rightLength);
+                return;
+            }
+            if (leftLength + rightLength <= threshold) {
+                merge();
+                return;
+            }
+
+            if (leftLength >= rightLength) {
+                int leftMiddle = (leftFrom + leftTo) >>> 1;
+                int rightMiddle = lowerBound(rightFrom, rightTo, source[leftMiddle]);
+                int middleAt = at + (leftMiddle - leftFrom) + (rightMiddle - rightFrom);
+                invokeAll(new MergeTask(source, destination, leftFrom, leftMiddle,
+                                rightFrom, rightMiddle, at, threshold),
+                        new MergeTask(source, destination, leftMiddle, leftTo,
+                                rightMiddle, rightTo, middleAt, threshold));
+            } else {
+                int rightMiddle = (rightFrom + rightTo) >>> 1;
+                int leftMiddle = upperBound(leftFrom, leftTo, source[rightMiddle]);
+                int middleAt = at + (leftMiddle - leftFrom) + (rightMiddle - rightFrom);
+                invokeAll(new MergeTask(source, destination, leftFrom, leftMiddle,
+                                rightFrom, rightMiddle, at, threshold),
+                        new MergeTask(source, destination, leftMiddle, leftTo,
+                                rightMiddle, rightTo, middleAt, threshold));
+            }
+        }
+
+        /**
+         * Последовательное слияние двух участков.
+         */
+        private void merge() {
+            int left = leftFrom;
+            int right = rightFrom;
+            int index = at;
+            while (left < leftTo && right < rightTo) {
+                if (source[right] < source[left]) {
+                    destination[index++] = source[right++];
+                } else {
+                    destination[index++] = source[left++];
+                }
+            }
+            System.arraycopy(source, left, destination, index, leftTo - left);
+            index += leftTo - left;
+            System.arraycopy(source, right, destination, index, rightTo - right);
+        }
+
+        /**
+         * Бинарный поиск первого элемента, не меньшего value.
+         */
+        private int lowerBound(int low, int high, int value) {
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (source[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Бинарный поиск первого элемента, большего value.
+         */
+        private int upperBound(int low, int high, int value) {
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (source[middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package ru.nsu.lyskov;
+
+/**
+ * Пирамидальная сортировка массивов примитивных типов (long, double, float, short, char)
+ * и сортировка индексов по ключу (argsort). Для каждого типа своё ядро, читающее
+ * элементы напрямую: элементы не упаковываются в объекты, сортировка выполняется
+ * на месте без выделения памяти, argsort выделяет только массив-перестановку.
+ * Ядра отличаются только типом элементов и сравнением: double и float сравниваются
+ * через Double.compare/Float.compare (полный порядок: -0.0 меньше 0.0, NaN больше
+ * любого числа), short и char - как int. Подробно ядра описаны для long.
+ * Алгоритм тот же, что в Heap: просеивание "снизу вверх" (эвристика Флойда).
+ */
+final class PrimitiveHeapsort {
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private PrimitiveHeapsort() {
+    }
+
+    /**
+     * Сортировка массива long[] на месте.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     */
+    static void heapsort(long[] array) {
+        int length = array.length;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, i, length, array[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            long last = array[i];
+            array[i] = array[0];
+            siftDown(array, 0, i, last);
+        }
+    }
+
+    /**
+     * Просеивание "снизу вверх": дыра опускается от top до листа по большим потомкам,
+     * затем value поднимается обратно, но не выше top.
+     *
+     * @param array    Массив, образующий кучу.
+     * @param top      Индекс корня просеиваемого поддерева.
+     * @param unsorted Число элементов кучи.
+     * @param value    Элемент, который нужно поместить в кучу вместо array[top].
+     */
+    private static void siftDown(long[] array, int top, int unsorted, long value) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && array[child + 1] > array[child]) {
+                child++;
+            }
+            array[hole] = array[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (value <= array[parent]) {
+                break;
+            }
+            array[hole] = array[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Сортировка массива double[] на месте.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     */
+    static void heapsort(double[] array) {
+        int length = array.length;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, i, length, array[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            double last = array[i];
+            array[i] = array[0];
+            siftDown(array, 0, i, last);
+        }
+    }
+
+    /**
+     * Просеивание для double[], как для long[].
+     */
+    private static void siftDown(double[] array, int top, int unsorted, double value) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && Double.compare(array[child + 1], array[child]) > 0) {
+                child++;
+            }
+            array[hole] = array[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (Double.compare(value, array[parent]) <= 0) {
+                break;
+            }
+            array[hole] = array[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Сортировка массива float[] на месте.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     */
+    static void heapsort(float[] array) {
+        int length = array.length;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, i, length, array[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            float last = array[i];
+            array[i] = array[0];
+            siftDown(array, 0, i, last);
+        }
+    }
+
+    /**
+     * Просеивание для float[], как для long[].
+     */
+    private static void siftDown(float[] array, int top, int unsorted, float value) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && Float.compare(array[child + 1], array[child]) > 0) {
+                child++;
+            }
+            array[hole] = array[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (Float.compare(value, array[parent]) <= 0) {
+                break;
+            }
+            array[hole] = array[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Сортировка массива short[] на месте.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     */
+    static void heapsort(short[] array) {
+        int length = array.length;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, i, length, array[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            short last = array[i];
+            array[i] = array[0];
+            siftDown(array, 0, i, last);
+        }
+    }
+
+    /**
+     * Просеивание для short[], как для long[].
+     */
+    private static void siftDown(short[] array, int top, int unsorted, short value) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && array[child + 1] > array[child]) {
+                child++;
+            }
+            array[hole] = array[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (value <= array[parent]) {
+                break;
+            }
+            array[hole] = array[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Сортировка массива char[] на месте.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     */
+    static void heapsort(char[] array) {
+        int length = array.length;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, i, length, array[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            char last = array[i];
+            array[i] = array[0];
+            siftDown(array, 0, i, last);
+        }
+    }
+
+    /**
+     * Просеивание для char[], как для long[].
+     */
+    private static void siftDown(char[] array, int top, int unsorted, char value) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted && array[child + 1] > array[child]) {
+                child++;
+            }
+            array[hole] = array[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (value <= array[parent]) {
+                break;
+            }
+            array[hole] = array[parent];
+            hole = parent;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Сортировка индексов по ключу: возвращает перестановку permutation, такую что
+     * keys[permutation[0]], keys[permutation[1]], ... идут по неубыванию. Сам массив
+     * ключей не изменяется. Равные ключи упорядочиваются по индексу, поэтому
+     * результат устойчив.
+     *
+     * @param keys Массив ключей.
+     * @return Массив индексов keys в порядке возрастания ключей.
+     */
+    static int[] argsort(int[] keys) {
+        int length = keys.length;
+        int[] permutation = new int[length];
+        for (int i = 0; i < length; i++) {
+            permutation[i] = i;
+        }
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDownIndex(keys, permutation, i, length, permutation[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int last = permutation[i];
+            permutation[i] = permutation[0];
+            siftDownIndex(keys, permutation, 0, i, last);
+        }
+        return permutation;
+    }
+
+    /**
+     * Просеивание индекса в куче индексов, упорядоченной по ключам (как siftDown).
+     *
+     * @param keys        Массив ключей.
+     * @param permutation Куча индексов.
+     * @param top         Индекс корня просеиваемого поддерева.
+     * @param unsorted    Число элементов кучи.
+     * @param index       Индекс, который нужно поместить в кучу вместо permutation[top].
+     */
+    private static void siftDownIndex(int[] keys, int[] permutation, int top, int unsorted,
+                                      int index) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted
+                    && greater(keys, permutation[child + 1], permutation[child])) {
+                child++;
+            }
+            permutation[hole] = permutation[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (!greater(keys, index, permutation[parent])) {
+                break;
+            }
+            permutation[hole] = permutation[parent];
+            hole = parent;
+        }
+        permutation[hole] = index;
+    }
+
+    /**
+     * Сравнение индексов по ключу, при равенстве ключей - по значению индекса.
+     */
+    private static boolean greater(int[] keys, int first, int second) {
+        int x = keys[first];
+        int y = keys[second];
+        return x > y || (x == y && first > second);
+    }
+
+    /**
+     * Сортировка индексов по ключу long, как argsort(int[]).
+     *
+     * @param keys Массив ключей.
+     * @return Массив индексов keys в порядке возрастания ключей.
+     */
+    static int[] argsort(long[] keys) {
+        int length = keys.length;
+        int[] permutation = new int[length];
+        for (int i = 0; i < length; i++) {
+            permutation[i] = i;
+        }
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDownIndex(keys, permutation, i, length, permutation[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int last = permutation[i];
+            permutation[i] = permutation[0];
+            siftDownIndex(keys, permutation, 0, i, last);
+        }
+        return permutation;
+    }
+
+    /**
+     * Просеивание индекса для ключей long[], как для int[].
+     */
+    private static void siftDownIndex(long[] keys, int[] permutation, int top, int unsorted,
+                                      int index) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted
+                    && greater(keys, permutation[child + 1], permutation[child])) {
+                child++;
+            }
+            permutation[hole] = permutation[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (!greater(keys, index, permutation[parent])) {
+                break;
+            }
+            permutation[hole] = permutation[parent];
+            hole = parent;
+        }
+        permutation[hole] = index;
+    }
+
+    /**
+     * Сравнение индексов по ключу long, как для int[].
+     */
+    private static boolean greater(long[] keys, int first, int second) {
+        long x = keys[first];
+        long y = keys[second];
+        return x > y || (x == y && first > second);
+    }
+
+    /**
+     * Сортировка индексов по ключу double, как argsort(int[]); ключи сравниваются
+     * через Double.compare.
+     *
+     * @param keys Массив ключей.
+     * @return Массив индексов keys в порядке возрастания ключей.
+     */
+    static int[] argsort(double[] keys) {
+        int length = keys.length;
+        int[] permutation = new int[length];
+        for (int i = 0; i < length; i++) {
+            permutation[i] = i;
+        }
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDownIndex(keys, permutation, i, length, permutation[i]);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int last = permutation[i];
+            permutation[i] = permutation[0];
+            siftDownIndex(keys, permutation, 0, i, last);
+        }
+        return permutation;
+    }
+
+    /**
+     * Просеивание индекса для ключей double[], как для int[].
+     */
+    private static void siftDownIndex(double[] keys, int[] permutation, int top, int unsorted,
+                                      int index) {
+        int hole = top;
+        int child;
+        while ((child = hole * 2 + 1) < unsorted) {
+            if (child + 1 < unsorted
+                    && greater(keys, permutation[child + 1], permutation[child])) {
+                child++;
+            }
+            permutation[hole] = permutation[child];
+            hole = child;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) >>> 1;
+            if (!greater(keys, index, permutation[parent])) {
+                break;
+            }
+            permutation[hole] = permutation[parent];
+            hole = parent;
+        }
+        permutation[hole] = index;
+    }
+
+    /**
+     * Сравнение индексов по ключу double, как для int[].
+     */
+    private static boolean greater(double[] keys, int first, int second) {
+        int comparison = Double.compare(keys[first], keys[second]);
+        return comparison > 0 || (comparison == 0 && first > second);
+    }
+}
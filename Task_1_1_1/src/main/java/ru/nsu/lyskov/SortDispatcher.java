@@ -0,0 +1,177 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сортировка с выбором алгоритма по входным данным. За один проход находятся
+ * минимум и максимум массива, после чего выбирается:
+ * - сортировка подсчётом, если диапазон значений меньше длины массива
+ * (коды статусов, номера корзин и т.п.), - O(n + диапазон);
+ * - LSD-сортировка по 8-битным цифрам разности value - min для больших массивов;
+ * число проходов зависит от ширины диапазона (от 1 до 4), - O(n);
+ * - пирамидальная сортировка Heap для маленьких массивов, где накладные
+ * расходы линейных сортировок не окупаются.
+ * Вспомогательные массивы (счётчики и буфер для поразрядной сортировки)
+ * сохраняются между вызовами, поэтому объект не потокобезопасен: каждому потоку
+ * нужен свой экземпляр. Для метрик считается, сколько раз выбран каждый алгоритм;
+ * счётчики (LongAdder по ordinal алгоритма) можно читать из других потоков.
+ */
+public class SortDispatcher {
+    /**
+     * Массивы короче этого порога всегда сортируются кучей.
+     */
+    static final int SMALL_LENGTH = 64;
+
+    /**
+     * Минимальная длина массива для поразрядной сортировки.
+     */
+    static final int RADIX_MIN_LENGTH = 1024;
+
+    /**
+     * Максимальный диапазон значений для сортировки подсчётом (4 МиБ счётчиков).
+     */
+    static final int COUNTING_MAX_RANGE = 1 << 20;
+
+    private static final int DIGIT_BITS = 8;
+    private static final int DIGITS = 1 << DIGIT_BITS;
+
+    private final LongAdder[] strategyCounts = new LongAdder[SortStrategy.values().length];
+    private int[] counts = new int[DIGITS];
+    private int[] scratch = new int[0];
+
+    /**
+     * Конструктор диспетчера с нулевыми счётчиками алгоритмов.
+     */
+    public SortDispatcher() {
+        for (int i = 0; i < strategyCounts.length; i++) {
+            strategyCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Сортировка массива выбранным алгоритмом.
+     *
+     * @param array Массив, который необходимо отсортировать.
+     * @return Алгоритм, которым был отсортирован массив.
+     */
+    public SortStrategy sort(int[] array) {
+        SortStrategy strategy = sortWithStrategy(array);
+        strategyCounts[strategy.ordinal()].increment();
+        return strategy;
+    }
+
+    /**
+     * Сколько раз каждый алгоритм был выбран этим объектом.
+     *
+     * @param strategy Алгоритм.
+     * @return Число сортировок, выполненных этим алгоритмом.
+     */
+    public long getStrategyCount(SortStrategy strategy) {
+        return strategyCounts[strategy.ordinal()].sum();
+    }
+
+    /**
+     * Выбор алгоритма и сортировка.
+     */
+    private SortStrategy sortWithStrategy(int[] array) {
+        int length = array.length;
+        if (length < SMALL_LENGTH) {
+            Heap.heapsort(array);
+            return SortStrategy.HEAPSORT;
+        }
+
+        int min = array[0];
+        int max = array[0];
+        for (int value : array) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        long range = (long) max - min;
+
+        if (range < length && range < COUNTING_MAX_RANGE) {
+            countingSort(array, min, (int) range + 1);
+            return SortStrategy.COUNTING;
+        }
+        if (length >= RADIX_MIN_LENGTH) {
+            radixSort(array, min, range);
+            return SortStrategy.RADIX;
+        }
+        Heap.heapsort(array);
+        return SortStrategy.HEAPSORT;
+    }
+
+    /**
+     * Сортировка подсчётом: считается число вхождений каждого значения,
+     * затем массив заполняется значениями по порядку.
+     */
+    private void countingSort(int[] array, int min, int range) {
+        int[] counts = counts(range);
+        for (int value : array) {
+            counts[value - min]++;
+        }
+        int index = 0;
+        for (int key = 0; key < range; key++) {
+            int count = counts[key];
+            int value = key + min;
+            for (int i = 0; i < count; i++) {
+                array[index++] = value;
+            }
+        }
+    }
+
+    /**
+     * Поразрядная сортировка по 8-битным цифрам числа (value - min), которое
+     * как беззнаковое лежит в [0, range]. Каждый проход устойчиво распределяет
+     * элементы по значению очередной цифры, массив и буфер меняются ролями.
+     */
+    private void radixSort(int[] array, int min, long range) {
+        int length = array.length;
+        if (scratch.length < length) {
+            scratch = new int[length];
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(range);
+        int passes = (bits + DIGIT_BITS - 1) / DIGIT_BITS;
+
+        int[] source = array;
+        int[] destination = scratch;
+        int[] counts = counts(DIGITS);
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * DIGIT_BITS;
+            if (pass > 0) {
+                Arrays.fill(counts, 0, DIGITS, 0);
+            }
+            for (int i = 0; i < length; i++) {
+                counts[((source[i] - min) >>> shift) & (DIGITS - 1)]++;
+            }
+            int offset = 0;
+            for (int digit = 0; digit < DIGITS; digit++) {
+                int count = counts[digit];
+                counts[digit] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < length; i++) {
+                int value = source[i];
+                destination[counts[((value - min) >>> shift) & (DIGITS - 1)]++] = value;
+            }
+            int[] temp = source;
+            source = destination;
+            destination = temp;
+        }
+        if (source != array) {
+            System.arraycopy(source, 0, array, 0, length);
+        }
+    }
+
+    /**
+     * Обнулённый массив счётчиков не короче size; при необходимости увеличивается.
+     */
+    private int[] counts(int size) {
+        if (counts.length < size) {
+            counts = new int[size];
+        } else {
+            Arrays.fill(counts, 0, size, 0);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.nsu.lyskov;
+
+/**
+ * Алгоритм, выбранный SortDispatcher для очередного массива.
+ */
+public enum SortStrategy {
+    /**
+     * Сортировка подсчётом: для массивов с узким диапазоном значений.
+     */
+    COUNTING,
+    /**
+     * Поразрядная LSD-сортировка по 8-битным цифрам: для больших массивов.
+     */
+    RADIX,
+    /**
+     * Пирамидальная сортировка Heap: для маленьких массивов.
+     */
+    HEAPSORT
+}
@@ -0,0 +1,158 @@
+package ru.nsu.lyskov;
+
+/**
+ * Битонная сортирующая сеть для блоков до 32 элементов. Последовательность
+ * операций "сравнить-обменять" зависит только от длины блока, а не от данных,
+ * и каждая операция выполняется через Math.min/Math.max без ветвлений (JIT
+ * компилирует их в условные пересылки). Поэтому на маленьких блоках сеть не
+ * страдает от ошибок предсказания переходов, в отличие от сортировки вставками
+ * и просеивания в куче.
+ * Используется вариант сети, в котором меньший элемент всегда уходит в меньший
+ * индекс. Блок произвольной длины n дополняется до степени двойки воображаемыми
+ * "бесконечностями" в конце; сравнения с ними ничего не меняют и пропускаются.
+ */
+final class SortingNetwork {
+    /**
+     * Максимальная длина блока, который сортирует сеть.
+     */
+    static final int MAX_SIZE = 32;
+
+    /**
+     * Число операций сети для каждой длины блока от 0 до MAX_SIZE.
+     */
+    private static final int[] COMPARATORS = new int[MAX_SIZE + 1];
+
+    static {
+        for (int length = 0; length <= MAX_SIZE; length++) {
+            COMPARATORS[length] = countComparators(length);
+        }
+    }
+
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private SortingNetwork() {
+    }
+
+    /**
+     * Сортировка блока [from, to) длиной не более MAX_SIZE.
+     *
+     * @param array Массив.
+     * @param from  Индекс первого элемента блока.
+     * @param to    Индекс, следующий за последним элементом блока.
+     */
+    static void sort(int[] array, int from, int to) {
+        int length = checkedLength(from, to);
+        for (int block = 2; block < length * 2; block <<= 1) {
+            mergeStage(array, from, 0, length, block);
+        }
+    }
+
+    /**
+     * Число операций "сравнить-обменять", которые сеть выполняет при сортировке
+     * блока длины length (зависит только от длины).
+     *
+     * @param length Длина блока, не более MAX_SIZE.
+     * @return Число сравнений.
+     */
+    static int comparators(int length) {
+        return COMPARATORS[checkedLength(0, length)];
+    }
+
+    /**
+     * Подсчёт операций сети проходом по её этапам, как в sort.
+     */
+    private static int countComparators(int length) {
+        int count = 0;
+        for (int block = 2; block < length * 2; block <<= 1) {
+            count += pairs(length, block - 1);
+            for (int step = block >> 2; step > 0; step >>= 1) {
+                count += pairs(length, step);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Число пар (i, i ^ mask) внутри блока, которые сравнивает один проход этапа.
+     */
+    private static int pairs(int length, int mask) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int second = i ^ mask;
+            if (second > i && second < length) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Слияние блока [from, to), у которого отсортированы участки [from, middle)
+     * и [middle, to) произвольной длины. Блок мысленно дополняется до степени двойки:
+     * перед первым участком - "минус бесконечностями", после второго - "плюс
+     * бесконечностями", так что оба участка становятся половинами одного этапа
+     * битонной сети. Сравнения с дополнением ничего не меняют и пропускаются.
+     *
+     * @param array  Массив.
+     * @param from   Индекс первого элемента блока.
+     * @param middle Индекс первого элемента второго участка.
+     * @param to     Индекс, следующий за последним элементом блока.
+     */
+    static void merge(int[] array, int from, int middle, int to) {
+        int length = checkedLength(from, to);
+        int left = middle - from;
+        if (left <= 0 || left >= length) {
+            return;
+        }
+        int longer = Math.max(left, length - left);
+        int half = longer == 1 ? 1 : Integer.highestOneBit(longer - 1) << 1;
+        mergeStage(array, from - (half - left), half - left, length, half * 2);
+    }
+
+    /**
+     * Один этап битонной сети: слияние соседних отсортированных подблоков длины
+     * block / 2 в отсортированные подблоки длины block. Первый проход сравнивает
+     * элементы, симметричные относительно середины подблока ("переворот"), затем
+     * идут полуочистители с шагом block / 4, block / 8, ..., 1.
+     * Индексы сети отсчитываются от base; реальные элементы занимают индексы
+     * [offset, offset + length), остальные - дополнение.
+     */
+    private static void mergeStage(int[] array, int base, int offset, int length, int block) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            compareExchange(array, base, end, i, i ^ (block - 1));
+        }
+        for (int step = block >> 2; step > 0; step >>= 1) {
+            for (int i = offset; i < end; i++) {
+                compareExchange(array, base, end, i, i ^ step);
+            }
+        }
+    }
+
+    /**
+     * Операция сети: меньший из элементов first и second (first &lt; second)
+     * записывается в first, больший - в second. Пары с second за концом
+     * блока end сравниваются с "бесконечностью" и пропускаются.
+     */
+    private static void compareExchange(int[] array, int base, int end,
+                                        int first, int second) {
+        if (second > first && second < end) {
+            int x = array[base + first];
+            int y = array[base + second];
+            array[base + first] = Math.min(x, y);
+            array[base + second] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * Длина блока с проверкой ограничения MAX_SIZE.
+     */
+    private static int checkedLength(int from, int to) {
+        int length = to - from;
+        if (length > MAX_SIZE) {
+            throw new IllegalArgumentException("Sorting network block is longer than 32");
+        }
+        return length;
+    }
+}
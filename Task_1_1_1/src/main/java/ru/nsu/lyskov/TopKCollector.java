@@ -0,0 +1,136 @@
+package ru.nsu.lyskov;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Потоковый отбор k наибольших чисел. Хранит min-кучу (IntHeap) из не более чем k
+ * элементов: новое число сравнивается с наименьшим из отобранных и, если оно больше,
+ * заменяет его. Отбор из n чисел выполняется за O(n log k) и требует O(k) памяти,
+ * поэтому входные данные можно подавать частями, не собирая их в один массив.
+ */
+public class TopKCollector implements IntConsumer {
+    private final int k;
+    private final IntHeap heap;
+
+    /**
+     * Конструктор пустого отбора.
+     *
+     * @param k Сколько наибольших чисел нужно сохранить.
+     */
+    public TopKCollector(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        this.k = k;
+        heap = new IntHeap(false, Math.min(k, 1 << 16));
+    }
+
+    /**
+     * Обработка очередного числа.
+     *
+     * @param value Число из входного потока.
+     */
+    @Override
+    public void accept(int value) {
+        if (heap.size() < k) {
+            heap.push(value);
+        } else if (k > 0 && value > heap.peek()) {
+            heap.replaceTop(value);
+        }
+    }
+
+    /**
+     * Обработка всех чисел массива.
+     *
+     * @param values Массив чисел.
+     * @return Этот же объект, чтобы вызовы можно было объединять в цепочку.
+     */
+    public TopKCollector addAll(int[] values) {
+        return addAll(values, 0, values.length);
+    }
+
+    /**
+     * Обработка части массива [from, to).
+     *
+     * @param values Массив чисел.
+     * @param from   Индекс первого обрабатываемого числа.
+     * @param to     Индекс, следующий за последним обрабатываемым числом.
+     * @return Этот же объект.
+     */
+    public TopKCollector addAll(int[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(values[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Обработка всех чисел потока. Параллельный поток обрабатывается
+     * последовательно, так как отбор не потокобезопасен.
+     *
+     * @param stream Поток чисел.
+     * @return Этот же объект.
+     */
+    public TopKCollector addAll(IntStream stream) {
+        stream.sequential().forEach(this);
+        return this;
+    }
+
+    /**
+     * Обработка оставшихся (от position до limit) чисел буфера без копирования.
+     * После вызова позиция буфера равна его пределу.
+     *
+     * @param buffer Буфер чисел.
+     * @return Этот же объект.
+     */
+    public TopKCollector addAll(IntBuffer buffer) {
+        int limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+            accept(buffer.get(i));
+        }
+        buffer.position(limit);
+        return this;
+    }
+
+    /**
+     * Обработка оставшихся чисел байтового буфера в его порядке байт (ByteBuffer.order()).
+     * Читаются только целые числа, неполный хвост из 1-3 байт остаётся в буфере.
+     *
+     * @param buffer Байтовый буфер.
+     * @return Этот же объект.
+     */
+    public TopKCollector addAll(ByteBuffer buffer) {
+        IntBuffer ints = buffer.asIntBuffer();
+        addAll(ints);
+        buffer.position(buffer.position() + ints.position() * Integer.BYTES);
+        return this;
+    }
+
+    /**
+     * Количество отобранных чисел: min(k, число обработанных чисел).
+     *
+     * @return Размер результата.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Отобранные числа по убыванию. Состояние отбора не меняется,
+     * поэтому после вызова можно продолжать подавать числа.
+     *
+     * @return Массив из size() наибольших чисел, отсортированный по убыванию.
+     */
+    public int[] result() {
+        int[] result = Heap.heapsort(heap.toArray());
+        for (int i = 0, j = result.length - 1; i < j; i++, j--) {
+            int temp = result[i];
+            result[i] = result[j];
+            result[j] = temp;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.nsu.lyskov;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class BufferHeapsortTest {
+    private final Random random = new Random(47);
+
+    /**
+     * Сортировка части прямого IntBuffer: элементы до позиции и после предела
+     * не меняются, позиция и предел сохраняются.
+     */
+    @Test
+    void intBuffer() {
+        int[] values = random.ints(1000).toArray();
+        IntBuffer buffer = ByteBuffer.allocateDirect(values.length * Integer.BYTES).asIntBuffer();
+        buffer.put(values).position(10).limit(990);
+
+        Heap.heapsort(buffer);
+
+        int[] expected = Arrays.copyOf(values, values.length);
+        Arrays.sort(expected, 10, 990);
+        int[] actual = new int[values.length];
+        buffer.clear().get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Байтовый буфер в обоих порядках байт; порядок байт и позиция буфера не меняются.
+     */
+    @Test
+    void byteBuffer() {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            int[] values = random.ints(257).toArray();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(values.length * Integer.BYTES + 3);
+            buffer.duplicate().order(order).asIntBuffer().put(values);
+
+            Heap.heapsort(buffer, order);
+
+            assertEquals(0, buffer.position());
+            assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+            int[] actual = new int[values.length];
+            buffer.duplicate().order(order).asIntBuffer().get(actual);
+            Arrays.sort(values);
+            assertArrayEquals(values, actual);
+        }
+    }
+
+    @Test
+    void topK() {
+        IntBuffer buffer = IntBuffer.wrap(new int[]{4, 9, 1, 7, 3});
+        buffer.position(1);
+        assertArrayEquals(new int[]{9, 7}, Heap.topK(buffer, 2));
+        assertEquals(1, buffer.position());
+
+        ByteBuffer bytes = ByteBuffer.allocateDirect(5 * Integer.BYTES);
+        bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer()
+                .put(new int[]{4, 9, 1, 7, 3});
+        assertArrayEquals(new int[]{9, 7, 4}, Heap.topK(bytes, ByteOrder.LITTLE_ENDIAN, 3));
+        assertEquals(0, bytes.position());
+    }
+}
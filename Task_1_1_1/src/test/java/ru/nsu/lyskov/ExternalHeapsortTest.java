@@ -0,0 +1,107 @@
+package ru.nsu.lyskov;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExternalHeapsortTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Бюджет памяти намного меньше файла: получается много серий, которые сливаются.
+     * Временные файлы серий после сортировки должны быть удалены.
+     */
+    @Test
+    void manyRuns() throws IOException {
+        int[] values = new Random(23).ints(10_007).toArray();
+        Path input = write("input.bin", values, ByteOrder.BIG_ENDIAN);
+        Path output = directory.resolve("output.bin");
+        Path temp = Files.createDirectory(directory.resolve("temp"));
+
+        new ExternalHeapsort(1000, temp).sort(input, output);
+
+        int[] expected = Arrays.copyOf(values, values.length);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, read(output, ByteOrder.BIG_ENDIAN));
+        try (var files = Files.list(temp)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * Серий больше, чем слияние берёт за один проход (в том числе больше, чем чисел
+     * в серии): они сливаются в несколько проходов, промежуточные файлы удаляются.
+     */
+    @Test
+    void multiPassMerge() throws IOException {
+        Random random = new Random(29);
+        Path temp = Files.createDirectory(directory.resolve("temp"));
+        // Серии по 16 чисел и по 4096 чисел (слияние по 3 серии за проход).
+        long[] budgets = {16 * Integer.BYTES, 4 * ExternalHeapsort.MIN_WINDOW * Integer.BYTES};
+        int[] sizes = {1000, 50_000};
+        for (int i = 0; i < budgets.length; i++) {
+            int[] values = random.ints(sizes[i]).toArray();
+            Path input = write("input" + i + ".bin", values, ByteOrder.BIG_ENDIAN);
+            Path output = directory.resolve("output" + i + ".bin");
+
+            new ExternalHeapsort(budgets[i], temp).sort(input, output);
+
+            Arrays.sort(values);
+            assertArrayEquals(values, read(output, ByteOrder.BIG_ENDIAN));
+            try (var files = Files.list(temp)) {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+
+    /**
+     * Файл, целиком помещающийся в память, пустой файл и порядок байт little-endian.
+     */
+    @Test
+    void singleRunAndEmpty() throws IOException {
+        int[] values = {3, -1, Integer.MAX_VALUE, 0, Integer.MIN_VALUE};
+        Path input = write("small.bin", values, ByteOrder.LITTLE_ENDIAN);
+        Path output = directory.resolve("small-sorted.bin");
+        new ExternalHeapsort(1 << 20, directory, ByteOrder.LITTLE_ENDIAN).sort(input, output);
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 0, 3, Integer.MAX_VALUE},
+                read(output, ByteOrder.LITTLE_ENDIAN));
+
+        Path empty = write("empty.bin", new int[]{}, ByteOrder.BIG_ENDIAN);
+        Path emptyOutput = directory.resolve("empty-sorted.bin");
+        new ExternalHeapsort(4, directory).sort(empty, emptyOutput);
+        assertEquals(0, Files.size(emptyOutput));
+    }
+
+    @Test
+    void exceptions() throws IOException {
+        Path broken = directory.resolve("broken.bin");
+        Files.write(broken, new byte[]{1, 2, 3});
+        ExternalHeapsort sort = new ExternalHeapsort(16, directory);
+        assertThrows(EOFException.class, () -> sort.sort(broken, directory.resolve("out.bin")));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalHeapsort(3, directory));
+    }
+
+    private Path write(String name, int[] values, ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES).order(order);
+        buffer.asIntBuffer().put(values);
+        return Files.write(directory.resolve(name), buffer.array());
+    }
+
+    private int[] read(Path file, ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(order);
+        int[] values = new int[buffer.remaining() / Integer.BYTES];
+        buffer.asIntBuffer().get(values);
+        return values;
+    }
+}
@@ -1,7 +1,12 @@
 package ru.nsu.lyskov;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 class HeapTest {
@@ -22,6 +27,185 @@ class HeapTest {
         assertArrayEquals(getSortedCopy(array), Heap.heapsort(array));
     }
 
+    /**
+     * Проверка на больших массивах с разным распределением значений: случайные,
+     * отсортированные, отсортированные в обратном порядке, с большим числом повторов.
+     */
+    @Test
+    void heapsortDistributions() {
+        Random random = new Random(42);
+        int size = 10_000;
+        int[] randomArray = random.ints(size).toArray();
+        int[] sorted = getSortedCopy(randomArray);
+        int[] reversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = sorted[size - 1 - i];
+        }
+        int[] duplicates = random.ints(size, 0, 4).toArray();
+
+        for (int[] array : new int[][]{randomArray, sorted, reversed, duplicates}) {
+            int[] expected = getSortedCopy(array);
+            assertArrayEquals(expected, Heap.heapsort(Arrays.copyOf(array, size)));
+        }
+    }
+
+    /**
+     * Сортировка на d-арной куче для всех допустимых арностей.
+     */
+    @Test
+    void heapsortArity() {
+        Random random = new Random(9);
+        for (int arity = 2; arity <= 16; arity++) {
+            for (int size : new int[]{0, 1, 2, 17, 1000}) {
+                int[] array = random.ints(size, -50, 50).toArray();
+                assertArrayEquals(getSortedCopy(array), Heap.heapsort(array, arity));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> Heap.heapsort(new int[]{1}, 1));
+        assertThrows(IllegalArgumentException.class, () -> Heap.heapsort(new int[]{1}, 17));
+    }
+
+    /**
+     * Параллельная сортировка должна давать тот же результат, что и обычная,
+     * в том числе при маленьком пороге (много участков и уровней слияния).
+     */
+    @Test
+    void parallelHeapsort() {
+        Random random = new Random(7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int size : new int[]{0, 1, 100, 10_007, 200_000}) {
+            int[] array = random.ints(size, -1000, 1000).toArray();
+            int[] expected = getSortedCopy(array);
+            assertArrayEquals(expected, Heap.parallelHeapsort(Arrays.copyOf(array, size)));
+            assertArrayEquals(expected, Heap.parallelHeapsort(Arrays.copyOf(array, size),
+                    pool, 64));
+            assertArrayEquals(expected, Heap.parallelHeapsort(Arrays.copyOf(array, size),
+                    pool, 2));
+            assertArrayEquals(expected, Heap.parallelHeapsort(array, pool, 1));
+        }
+        assertArrayEquals(new int[]{1, 2, 3, 4}, Heap.parallelHeapsort(new int[]{4, 3, 2, 1},
+                pool, 1));
+        pool.shutdown();
+        assertThrows(IllegalArgumentException.class,
+                () -> Heap.parallelHeapsort(new int[]{1}, ForkJoinPool.commonPool(), 0));
+    }
+
+    /**
+     * Сортировка массивов других примитивных типов сравнивается с библиотечной.
+     * Для double и float проверяется полный порядок: -0.0 перед 0.0, NaN в конце.
+     */
+    @Test
+    void primitiveHeapsort() {
+        Random random = new Random(3);
+        long[] longs = random.longs(1000).toArray();
+        long[] expectedLongs = Arrays.copyOf(longs, longs.length);
+        Arrays.sort(expectedLongs);
+        assertArrayEquals(expectedLongs, Heap.heapsort(longs));
+
+        double[] doubles = random.doubles(1000, -1, 1).toArray();
+        doubles[0] = Double.NaN;
+        doubles[1] = -0.0;
+        doubles[2] = 0.0;
+        doubles[3] = Double.NEGATIVE_INFINITY;
+        double[] expectedDoubles = Arrays.copyOf(doubles, doubles.length);
+        Arrays.sort(expectedDoubles);
+        assertArrayEquals(expectedDoubles, Heap.heapsort(doubles));
+
+        float[] floats = new float[]{3.5f, Float.NaN, -0.0f, 0.0f, -1.0f, Float.NaN, 0.0f};
+        float[] expectedFloats = Arrays.copyOf(floats, floats.length);
+        Arrays.sort(expectedFloats);
+        assertArrayEquals(expectedFloats, Heap.heapsort(floats));
+
+        short[] shorts = new short[]{5, Short.MIN_VALUE, -3, Short.MAX_VALUE, 0, 5};
+        short[] expectedShorts = Arrays.copyOf(shorts, shorts.length);
+        Arrays.sort(expectedShorts);
+        assertArrayEquals(expectedShorts, Heap.heapsort(shorts));
+
+        char[] chars = "heapsort".toCharArray();
+        char[] expectedChars = Arrays.copyOf(chars, chars.length);
+        Arrays.sort(expectedChars);
+        assertArrayEquals(expectedChars, Heap.heapsort(chars));
+    }
+
+    /**
+     * Проверка argsort: ключи по перестановке идут по неубыванию,
+     * равные ключи сохраняют порядок индексов.
+     */
+    @Test
+    void argsort() {
+        int[] keys = new int[]{30, 10, 20, 10, 30};
+        assertArrayEquals(new int[]{1, 3, 2, 0, 4}, Heap.argsort(keys));
+        assertArrayEquals(new int[]{30, 10, 20, 10, 30}, keys);
+        assertArrayEquals(new int[]{}, Heap.argsort(new int[]{}));
+
+        assertArrayEquals(new int[]{2, 0, 1}, Heap.argsort(new long[]{5L, 7L, Long.MIN_VALUE}));
+        assertArrayEquals(new int[]{2, 1, 3, 0},
+                Heap.argsort(new double[]{Double.NaN, -0.0, -1.5, 0.0}));
+
+        int[] randomKeys = new Random(5).ints(5000, 0, 100).toArray();
+        int[] permutation = Heap.argsort(randomKeys);
+        for (int i = 1; i < permutation.length; i++) {
+            int previous = randomKeys[permutation[i - 1]];
+            int current = randomKeys[permutation[i]];
+            assertTrue(previous < current
+                    || (previous == current && permutation[i - 1] < permutation[i]));
+        }
+    }
+
+    /**
+     * topK возвращает наибольшие элементы по убыванию, partialSort ставит их
+     * в конец массива так же, как полная сортировка.
+     */
+    @Test
+    void topKAndPartialSort() {
+        int[] array = new Random(21).ints(10_000, -500, 500).toArray();
+        int[] sorted = getSortedCopy(array);
+        for (int k : new int[]{0, 1, 2, 100, 9_999, 10_000, 20_000}) {
+            int count = Math.min(k, array.length);
+            int[] expected = new int[count];
+            for (int i = 0; i < count; i++) {
+                expected[i] = sorted[sorted.length - 1 - i];
+            }
+            assertArrayEquals(expected, Heap.topK(array, k));
+
+            int[] partial = Heap.partialSort(Arrays.copyOf(array, array.length), k);
+            assertArrayEquals(Arrays.copyOfRange(sorted, array.length - count, array.length),
+                    Arrays.copyOfRange(partial, array.length - count, array.length));
+            assertArrayEquals(sorted, getSortedCopy(partial));
+        }
+        assertArrayEquals(new int[]{}, Heap.topK(new int[]{}, 3));
+        assertThrows(IllegalArgumentException.class, () -> Heap.partialSort(array, -1));
+    }
+
+    /**
+     * Сортировка объектов по компаратору и по примитивному ключу.
+     */
+    @Test
+    void objectHeapsort() {
+        Random random = new Random(27);
+        String[] strings = new String[500];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = Integer.toString(random.nextInt(1000));
+        }
+        String[] expectedStrings = Arrays.copyOf(strings, strings.length);
+        Arrays.sort(expectedStrings, Comparator.reverseOrder());
+        assertArrayEquals(expectedStrings, Heap.heapsort(strings, Comparator.reverseOrder()));
+
+        long[][] records = new long[1000][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new long[]{random.nextInt(100), random.nextLong()};
+        }
+        long[][] byInt = Heap.heapsortByInt(records.clone(), record -> (int) record[0]);
+        long[][] byLong = Heap.heapsortByLong(records.clone(), record -> record[1]);
+        for (int i = 1; i < records.length; i++) {
+            assertTrue(byInt[i - 1][0] <= byInt[i][0]);
+            assertTrue(byLong[i - 1][1] <= byLong[i][1]);
+        }
+        long[][] expectedRecords = records.clone();
+        Arrays.sort(expectedRecords, Comparator.comparingLong(record -> record[1]));
+        assertArrayEquals(expectedRecords, byLong);
+    }
+
     /**
      * Функция, использующая библиотечную сортировку массива.
      *
@@ -0,0 +1,96 @@
+package ru.nsu.lyskov;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class HeapsortStatsTest {
+
+    @Test
+    void countsAccumulate() {
+        Random random = new Random(3);
+        HeapsortStats stats = new HeapsortStats();
+        int[] first = random.ints(1000).toArray();
+        int[] expected = Arrays.copyOf(first, first.length);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, Heap.heapsort(first, stats));
+
+        assertEquals(1, stats.getSortCount());
+        assertEquals(1000, stats.getElementCount());
+        long comparisons = stats.getComparisons();
+        assertTrue(comparisons > 1000 * 9 && comparisons < 2 * 1000 * 10);
+        assertTrue(stats.getSwaps() > 0);
+        assertTrue(stats.getMaxSiftDepth() > 0 && stats.getMaxSiftDepth() < 10);
+        assertTrue(stats.getMaxNanos() > 0);
+        assertTrue(stats.getMaxComparisonRatio() > 0.5 && stats.getMaxComparisonRatio() < 2);
+
+        Heap.heapsort(new int[]{3, 1, 2}, stats);
+        assertEquals(2, stats.getSortCount());
+        assertTrue(stats.getComparisons() > comparisons);
+        assertTrue(stats.getTotalNanos() >= stats.getMaxNanos());
+
+        stats.reset();
+        assertEquals(0, stats.getSortCount());
+        assertEquals(0, stats.getComparisons());
+        assertEquals(0.0, stats.getMaxComparisonRatio());
+    }
+
+    /**
+     * Статистика считается по той же реализации, что и обычная сортировка:
+     * короткий массив сортируется только сетью, арность кучи учитывается.
+     */
+    @Test
+    void sameAlgorithmAsHeapsort() {
+        assertEquals(1, SortingNetwork.comparators(2));
+        assertEquals(6, SortingNetwork.comparators(4));
+        assertEquals(240, SortingNetwork.comparators(32));
+
+        HeapsortStats stats = new HeapsortStats();
+        Heap.heapsort(new int[]{5, 1, 4, 2, 3}, stats);
+        assertEquals(SortingNetwork.comparators(5), stats.getComparisons());
+        assertEquals(0, stats.getSwaps());
+
+        int[] values = new Random(5).ints(100_000).toArray();
+        HeapsortStats binary = new HeapsortStats();
+        HeapsortStats quaternary = new HeapsortStats();
+        int[] expected = Heap.heapsort(values.clone());
+        assertArrayEquals(expected, Heap.heapsort(values.clone(), binary));
+        assertArrayEquals(expected, Heap.heapsort(values.clone(), 4, quaternary));
+        assertTrue(quaternary.getMaxSiftDepth() < binary.getMaxSiftDepth());
+        assertTrue(quaternary.getSwaps() < binary.getSwaps());
+        assertThrows(IllegalArgumentException.class, () -> Heap.heapsort(values, 1, binary));
+    }
+
+    /**
+     * Без объекта статистики выполняется обычная сортировка.
+     */
+    @Test
+    void nullStats() {
+        assertArrayEquals(new int[]{1, 2, 3}, Heap.heapsort(new int[]{3, 2, 1}, null));
+    }
+
+    @Test
+    void jmx() throws JMException {
+        HeapsortStats stats = new HeapsortStats();
+        ObjectName name = stats.register("test");
+        try {
+            Heap.heapsort(new int[]{5, 4, 3, 2, 1}, stats);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "SortCount"));
+            assertEquals(stats.getComparisons(), server.getAttribute(name, "Comparisons"));
+            assertThrows(JMException.class, () -> stats.register("test"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0, stats.getSortCount());
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.nsu.lyskov;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class IndexedIntHeapTest {
+
+    /**
+     * Изменение ключей в обе стороны и проверка порядка извлечения.
+     */
+    @Test
+    void changeKey() {
+        IndexedIntHeap heap = new IndexedIntHeap(false, 2);
+        heap.push(0, 50);
+        heap.push(1, 20);
+        heap.push(7, 30);
+        heap.push(3, 40);
+        assertEquals(1, heap.peek());
+
+        heap.changeKey(3, 10);
+        assertEquals(3, heap.peek());
+        assertEquals(10, heap.peekKey());
+        heap.changeKey(3, 60);
+        assertEquals(60, heap.keyOf(3));
+
+        assertEquals(1, heap.pop());
+        assertEquals(7, heap.pop());
+        assertEquals(0, heap.pop());
+        assertFalse(heap.contains(0));
+        assertTrue(heap.contains(3));
+        assertEquals(3, heap.pop());
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Случайные изменения ключей сверяются с наивным поиском максимума.
+     */
+    @Test
+    void randomOperations() {
+        Random random = new Random(17);
+        int count = 500;
+        int[] expectedKeys = new int[count];
+        IndexedIntHeap heap = new IndexedIntHeap(true);
+        for (int id = 0; id < count; id++) {
+            expectedKeys[id] = random.nextInt(1000);
+            heap.push(id, expectedKeys[id]);
+        }
+        for (int i = 0; i < 5000; i++) {
+            int id = random.nextInt(count);
+            expectedKeys[id] = random.nextInt(1000);
+            heap.changeKey(id, expectedKeys[id]);
+            int max = Integer.MIN_VALUE;
+            for (int key : expectedKeys) {
+                max = Math.max(max, key);
+            }
+            assertEquals(max, heap.peekKey());
+            assertEquals(max, expectedKeys[heap.peek()]);
+        }
+        assertEquals(count, heap.size());
+    }
+
+    @Test
+    void exceptions() {
+        IndexedIntHeap heap = new IndexedIntHeap(true);
+        heap.push(1, 1);
+        assertThrows(IllegalArgumentException.class, () -> heap.push(1, 2));
+        assertThrows(IllegalArgumentException.class, () -> heap.push(-1, 2));
+        assertThrows(NoSuchElementException.class, () -> heap.changeKey(2, 2));
+        assertThrows(NoSuchElementException.class, () -> heap.keyOf(100));
+        heap.pop();
+        assertThrows(NoSuchElementException.class, heap::pop);
+        assertThrows(NoSuchElementException.class, heap::peekKey);
+    }
+}
@@ -0,0 +1,217 @@
+package ru.nsu.lyskov;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class IndexedPairingHeapTest {
+
+    @Test
+    void decreaseKey() {
+        IndexedPairingHeap heap = new IndexedPairingHeap(2);
+        heap.insert(0, 50);
+        heap.insert(1, 20);
+        heap.insert(7, 30);
+        heap.insert(3, 40);
+        assertEquals(1, heap.peekMin());
+
+        heap.decreaseKey(3, 10);
+        assertEquals(3, heap.peekMin());
+        assertEquals(10, heap.peekMinKey());
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(3, 60));
+
+        assertEquals(3, heap.pollMin());
+        assertEquals(1, heap.pollMin());
+        assertFalse(heap.contains(1));
+        heap.decreaseKey(0, 25);
+        assertEquals(0, heap.pollMin());
+        assertEquals(7, heap.pollMin());
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::pollMin);
+        assertThrows(NoSuchElementException.class, () -> heap.keyOf(7));
+    }
+
+    /**
+     * Случайные вставки, уменьшения ключей и извлечения сверяются с наивным поиском минимума.
+     */
+    @Test
+    void randomOperations() {
+        Random random = new Random(23);
+        int count = 300;
+        int[] expectedKeys = new int[count];
+        Arrays.fill(expectedKeys, Integer.MAX_VALUE);
+        boolean[] present = new boolean[count];
+        IndexedPairingHeap heap = new IndexedPairingHeap();
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(count);
+            int operation = random.nextInt(3);
+            if (operation == 0 && !present[id]) {
+                expectedKeys[id] = random.nextInt(10000);
+                present[id] = true;
+                heap.insert(id, expectedKeys[id]);
+            } else if (operation == 1 && present[id]) {
+                expectedKeys[id] -= random.nextInt(500);
+                heap.decreaseKey(id, expectedKeys[id]);
+            } else if (operation == 2 && !heap.isEmpty()) {
+                int key = heap.peekMinKey();
+                int top = heap.pollMin();
+                assertEquals(expectedKeys[top], key);
+                present[top] = false;
+                for (int other = 0; other < count; other++) {
+                    assertTrue(!present[other] || expectedKeys[other] >= key);
+                }
+            }
+            assertEquals(present[id], heap.contains(id));
+        }
+    }
+
+    @Test
+    void meld() {
+        IndexedPairingHeap first = new IndexedPairingHeap();
+        IndexedPairingHeap second = new IndexedPairingHeap();
+        for (int id = 0; id < 50; id++) {
+            first.insert(id, 100 - id);
+            second.insert(id + 50, id * 3);
+        }
+        first.pollMin();
+        second.pollMin();
+        IndexedPairingHeap overlapping = new IndexedPairingHeap();
+        overlapping.insert(10, 0);
+        assertThrows(IllegalArgumentException.class, () -> first.meld(overlapping));
+
+        first.meld(second);
+        assertTrue(second.isEmpty());
+        assertFalse(second.contains(60));
+        assertEquals(98, first.size());
+        first.decreaseKey(60, -1);
+
+        List<Integer> keys = new ArrayList<>();
+        while (!first.isEmpty()) {
+            keys.add(first.peekMinKey());
+            first.pollMin();
+        }
+        List<Integer> sorted = new ArrayList<>(keys);
+        sorted.sort(null);
+        assertEquals(sorted, keys);
+        assertEquals(-1, keys.get(0));
+    }
+
+    /**
+     * Кучи общего пула: слияние без копирования узлов; после слияния пустая куча
+     * снова используется, а принадлежность идентификаторов кучам не путается.
+     */
+    @Test
+    void sharedPoolMeld() {
+        IndexedPairingHeap.Pool pool = new IndexedPairingHeap.Pool(8);
+        IndexedPairingHeap first = new IndexedPairingHeap(pool);
+        IndexedPairingHeap second = new IndexedPairingHeap(pool);
+        for (int id = 0; id < 100; id += 2) {
+            first.insert(id, id);
+            second.insert(id + 1, 200 - id);
+        }
+        assertThrows(IllegalArgumentException.class, () -> second.insert(4, 0));
+        assertFalse(first.contains(1));
+        assertTrue(second.contains(1));
+
+        first.meld(second);
+        assertTrue(second.isEmpty());
+        assertTrue(first.contains(1));
+        assertFalse(second.contains(1));
+        assertEquals(100, first.size());
+        first.decreaseKey(99, -5);
+
+        second.insert(100, 7);
+        second.insert(101, -10);
+        assertFalse(first.contains(100));
+        IndexedPairingHeap third = new IndexedPairingHeap(pool);
+        third.insert(102, 50);
+        second.meld(third);
+        first.meld(second);
+        assertTrue(first.contains(102));
+        assertFalse(third.contains(102));
+        assertEquals(103, first.size());
+
+        List<Integer> keys = new ArrayList<>();
+        while (!first.isEmpty()) {
+            keys.add(first.peekMinKey());
+            first.pollMin();
+        }
+        List<Integer> sorted = new ArrayList<>(keys);
+        sorted.sort(null);
+        assertEquals(sorted, keys);
+        assertEquals(List.of(-10, -5, 0), keys.subList(0, 3));
+    }
+
+    /**
+     * Алгоритм Дейкстры с уменьшением ключа против версии с ленивым удалением на PriorityQueue.
+     */
+    @Test
+    void dijkstra() {
+        Random random = new Random(5);
+        int vertices = 2000;
+        int edges = 20000;
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        int[] weight = new int[edges];
+        List<List<Integer>> adjacency = new ArrayList<>();
+        for (int v = 0; v < vertices; v++) {
+            adjacency.add(new ArrayList<>());
+        }
+        for (int e = 0; e < edges; e++) {
+            from[e] = random.nextInt(vertices);
+            to[e] = random.nextInt(vertices);
+            weight[e] = random.nextInt(1000);
+            adjacency.get(from[e]).add(e);
+        }
+
+        int[] distance = new int[vertices];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[0] = 0;
+        IndexedPairingHeap heap = new IndexedPairingHeap(vertices);
+        heap.insert(0, 0);
+        while (!heap.isEmpty()) {
+            int v = heap.pollMin();
+            for (int e : adjacency.get(v)) {
+                int candidate = distance[v] + weight[e];
+                if (candidate < distance[to[e]]) {
+                    if (distance[to[e]] == Integer.MAX_VALUE) {
+                        heap.insert(to[e], candidate);
+                    } else {
+                        heap.decreaseKey(to[e], candidate);
+                    }
+                    distance[to[e]] = candidate;
+                }
+            }
+        }
+
+        int[] expected = new int[vertices];
+        Arrays.fill(expected, Integer.MAX_VALUE);
+        expected[0] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, 0});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int v = (int) entry[1];
+            if (entry[0] > expected[v]) {
+                continue;
+            }
+            for (int e : adjacency.get(v)) {
+                int candidate = expected[v] + weight[e];
+                if (candidate < expected[to[e]]) {
+                    expected[to[e]] = candidate;
+                    queue.add(new long[]{candidate, to[e]});
+                }
+            }
+        }
+        assertArrayEquals(expected, distance);
+    }
+}
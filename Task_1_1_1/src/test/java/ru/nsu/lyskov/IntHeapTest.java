@@ -0,0 +1,91 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class IntHeapTest {
+
+    /**
+     * Сравнение со стандартной PriorityQueue на случайной последовательности операций.
+     */
+    @Test
+    void randomOperations() {
+        Random random = new Random(11);
+        for (boolean maxHeap : new boolean[]{true, false}) {
+            IntHeap heap = new IntHeap(maxHeap, 0);
+            PriorityQueue<Integer> expected = maxHeap
+                    ? new PriorityQueue<>((a, b) -> Integer.compare(b, a))
+                    : new PriorityQueue<>();
+            for (int i = 0; i < 10_000; i++) {
+                int operation = random.nextInt(4);
+                int value = random.nextInt();
+                if (operation < 2 || expected.isEmpty()) {
+                    heap.push(value);
+                    expected.add(value);
+                } else if (operation == 2) {
+                    assertEquals(expected.poll(), heap.pop());
+                } else {
+                    assertEquals(expected.poll(), heap.replaceTop(value));
+                    expected.add(value);
+                }
+                assertEquals(expected.size(), heap.size());
+                assertEquals(expected.peek(), heap.peek());
+            }
+        }
+    }
+
+    /**
+     * Массовое добавление с построением кучи за O(n) и крайние значения int.
+     */
+    @Test
+    void addAll() {
+        IntHeap heap = new IntHeap(false);
+        heap.push(5);
+        heap.addAll(new int[]{Integer.MAX_VALUE, 3, Integer.MIN_VALUE, 4, -1});
+        int[] expected = {Integer.MIN_VALUE, -1, 3, 4, 5, Integer.MAX_VALUE};
+        for (int value : expected) {
+            assertEquals(value, heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+
+        heap.addAll(new int[]{1, 2});
+        heap.clear();
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * d-арные кучи должны извлекать элементы в том же порядке, что и бинарная.
+     */
+    @Test
+    void arity() {
+        Random random = new Random(19);
+        int[] values = random.ints(3000).toArray();
+        int[] expected = Heap.heapsort(values.clone());
+        for (int arity : new int[]{2, 3, 4, 8, 16}) {
+            IntHeap heap = new IntHeap(false, 0, arity);
+            heap.addAll(Arrays.copyOf(values, 1000));
+            for (int i = 1000; i < values.length; i++) {
+                heap.push(values[i]);
+            }
+            for (int value : expected) {
+                assertEquals(value, heap.pop());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new IntHeap(true, 0, 1));
+    }
+
+    @Test
+    void exceptions() {
+        IntHeap heap = new IntHeap(true);
+        assertThrows(NoSuchElementException.class, heap::pop);
+        assertThrows(NoSuchElementException.class, heap::peek);
+        assertThrows(NoSuchElementException.class, () -> heap.replaceTop(1));
+        assertThrows(IllegalArgumentException.class, () -> new IntHeap(true, -1));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import org.junit.jupiter.api.Test;
+
+class IntrosortTest {
+
+    /**
+     * Сравнение с библиотечной сортировкой на разных распределениях, включая
+     * "органную трубу", неудобную для медианы трёх.
+     */
+    @Test
+    void introsort() {
+        Random random = new Random(29);
+        int size = 50_000;
+        int[] organPipe = new int[size];
+        for (int i = 0; i < size; i++) {
+            organPipe[i] = Math.min(i, size - i);
+        }
+        int[] sorted = random.ints(size).sorted().toArray();
+        int[] reversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = sorted[size - 1 - i];
+        }
+        int[][] inputs = {random.ints(size).toArray(), sorted, reversed, organPipe,
+            random.ints(size, 0, 3).toArray(), new int[size], {}, {1}, {2, 1}};
+        for (int[] input : inputs) {
+            int[] expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            assertArrayEquals(expected, Heap.introsort(input));
+        }
+    }
+
+    /**
+     * При исчерпании глубины сортировка должна перейти на heapsort и остаться корректной.
+     */
+    @Test
+    void heapsortFallback() {
+        int[] array = new Random(31).ints(1000).toArray();
+        int[] expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected);
+        for (int depthLimit : new int[]{0, 1, 3}) {
+            int[] copy = Arrays.copyOf(array, array.length);
+            Introsort.sort(copy, 0, copy.length, depthLimit);
+            assertArrayEquals(expected, copy);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class LongHeapTest {
+
+    /**
+     * Сравнение со стандартной PriorityQueue на случайной последовательности операций.
+     */
+    @Test
+    void randomOperations() {
+        Random random = new Random(13);
+        for (boolean maxHeap : new boolean[]{true, false}) {
+            LongHeap heap = new LongHeap(maxHeap, 0, maxHeap ? 4 : 8);
+            PriorityQueue<Long> expected = maxHeap
+                    ? new PriorityQueue<>((a, b) -> Long.compare(b, a))
+                    : new PriorityQueue<>();
+            long[] initial = random.longs(100).toArray();
+            heap.addAll(initial);
+            for (long value : initial) {
+                expected.add(value);
+            }
+            for (int i = 0; i < 10_000; i++) {
+                long value = random.nextLong();
+                if (random.nextBoolean() || expected.isEmpty()) {
+                    heap.push(value);
+                    expected.add(value);
+                } else {
+                    assertEquals(expected.poll(), heap.replaceTop(value));
+                    expected.add(value);
+                    assertEquals(expected.poll(), heap.pop());
+                }
+                assertEquals(expected.peek(), heap.peek());
+            }
+            while (!expected.isEmpty()) {
+                assertEquals(expected.poll(), heap.pop());
+            }
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    /**
+     * LongHeap - копия IntHeap: на одинаковых операциях с числами int обе кучи
+     * возвращают одно и то же, включая порядок хранения элементов (toArray).
+     */
+    @Test
+    void sameAsIntHeap() {
+        Random random = new Random(17);
+        for (int arity : new int[]{2, 3, 8}) {
+            for (boolean maxHeap : new boolean[]{true, false}) {
+                IntHeap intHeap = new IntHeap(maxHeap, 0, arity);
+                LongHeap longHeap = new LongHeap(maxHeap, 0, arity);
+                int[] initial = random.ints(50).toArray();
+                intHeap.addAll(initial);
+                longHeap.addAll(Arrays.stream(initial).asLongStream().toArray());
+                for (int i = 0; i < 2000; i++) {
+                    int value = random.nextInt();
+                    int operation = random.nextInt(3);
+                    if (operation == 0 || intHeap.isEmpty()) {
+                        intHeap.push(value);
+                        longHeap.push(value);
+                    } else if (operation == 1) {
+                        assertEquals(intHeap.pop(), longHeap.pop());
+                    } else {
+                        assertEquals(intHeap.replaceTop(value), longHeap.replaceTop(value));
+                    }
+                    assertEquals(intHeap.size(), longHeap.size());
+                }
+                assertArrayEquals(Arrays.stream(intHeap.toArray()).asLongStream().toArray(),
+                        longHeap.toArray());
+                intHeap.clear();
+                longHeap.clear();
+                assertEquals(0, longHeap.toArray().length);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class SortDispatcherTest {
+    private final SortDispatcher dispatcher = new SortDispatcher();
+    private final Random random = new Random(43);
+
+    /**
+     * Выбор алгоритма в зависимости от длины массива и диапазона значений.
+     */
+    @Test
+    void strategies() {
+        check(SortStrategy.HEAPSORT, random.ints(10).toArray());
+        check(SortStrategy.COUNTING, random.ints(5000, 200, 600).toArray());
+        check(SortStrategy.COUNTING, random.ints(100, -3, 3).toArray());
+        check(SortStrategy.RADIX, random.ints(5000).toArray());
+        check(SortStrategy.RADIX, random.ints(5000, -100_000, 100_000).toArray());
+        check(SortStrategy.HEAPSORT, random.ints(500).toArray());
+
+        int[] extremes = new int[2000];
+        for (int i = 0; i < extremes.length; i++) {
+            extremes[i] = random.nextBoolean() ? Integer.MIN_VALUE : Integer.MAX_VALUE - i;
+        }
+        check(SortStrategy.RADIX, extremes);
+
+        assertEquals(2, dispatcher.getStrategyCount(SortStrategy.COUNTING));
+        assertEquals(3, dispatcher.getStrategyCount(SortStrategy.RADIX));
+        assertEquals(2, dispatcher.getStrategyCount(SortStrategy.HEAPSORT));
+    }
+
+    /**
+     * Буферы переиспользуются: массив меньшего размера после большего
+     * должен сортироваться так же корректно.
+     */
+    @Test
+    void reuse() {
+        check(SortStrategy.RADIX, random.ints(10_000).toArray());
+        check(SortStrategy.RADIX, random.ints(2000, 0, 1 << 12).toArray());
+        check(SortStrategy.COUNTING, random.ints(3000, 0, 7).toArray());
+        check(SortStrategy.HEAPSORT, new int[]{});
+    }
+
+    private void check(SortStrategy expected, int[] array) {
+        int[] sorted = Arrays.copyOf(array, array.length);
+        Arrays.sort(sorted);
+        assertEquals(expected, dispatcher.sort(array));
+        assertArrayEquals(sorted, array);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class SortingNetworkTest {
+
+    /**
+     * Сеть должна сортировать блоки любой длины от 0 до 32 внутри большего массива,
+     * не трогая элементы вокруг блока.
+     */
+    @Test
+    void sort() {
+        Random random = new Random(37);
+        for (int length = 0; length <= SortingNetwork.MAX_SIZE; length++) {
+            for (int attempt = 0; attempt < 200; attempt++) {
+                int[] array = random.ints(length + 4, -20, 20).toArray();
+                int[] expected = Arrays.copyOf(array, array.length);
+                Arrays.sort(expected, 2, 2 + length);
+                SortingNetwork.sort(array, 2, 2 + length);
+                assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    /**
+     * Слияние двух отсортированных участков при любой точке раздела.
+     */
+    @Test
+    void merge() {
+        Random random = new Random(41);
+        for (int length = 1; length <= SortingNetwork.MAX_SIZE; length++) {
+            for (int middle = 0; middle <= length; middle++) {
+                int[] array = random.ints(length + 3, -20, 20).toArray();
+                Arrays.sort(array, 1, 1 + middle);
+                Arrays.sort(array, 1 + middle, 1 + length);
+                int[] expected = Arrays.copyOf(array, array.length);
+                Arrays.sort(expected, 1, 1 + length);
+                SortingNetwork.merge(array, 1, 1 + middle, 1 + length);
+                assertArrayEquals(expected, array);
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> SortingNetwork.sort(new int[40], 0, 33));
+    }
+}
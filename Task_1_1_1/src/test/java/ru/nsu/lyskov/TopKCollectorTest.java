@@ -0,0 +1,48 @@
+package ru.nsu.lyskov;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class TopKCollectorTest {
+
+    /**
+     * Данные подаются частями из разных источников, результат должен совпасть
+     * с отбором из всех чисел сразу.
+     */
+    @Test
+    void chunks() {
+        TopKCollector collector = new TopKCollector(3);
+        collector.addAll(new int[]{5, 1, 9}, 1, 3);
+        assertArrayEquals(new int[]{9, 1}, collector.result());
+
+        collector.addAll(IntStream.rangeClosed(1, 4).parallel());
+        assertArrayEquals(new int[]{9, 4, 3}, collector.result());
+
+        IntBuffer ints = IntBuffer.wrap(new int[]{0, 7, 8});
+        ints.position(1);
+        collector.addAll(ints);
+        assertEquals(3, ints.position());
+        assertArrayEquals(new int[]{9, 8, 7}, collector.result());
+
+        ByteBuffer bytes = ByteBuffer.allocateDirect(10).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putInt(100).putInt(-100).put((byte) 1).put((byte) 2).flip();
+        collector.addAll(bytes);
+        assertEquals(8, bytes.position());
+        assertArrayEquals(new int[]{100, 9, 8}, collector.result());
+        assertEquals(3, collector.size());
+    }
+
+    @Test
+    void edgeCases() {
+        TopKCollector empty = new TopKCollector(0);
+        empty.addAll(new int[]{1, 2, 3});
+        assertArrayEquals(new int[]{}, empty.result());
+        assertThrows(IllegalArgumentException.class, () -> new TopKCollector(-1));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.nsu.lyskov;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Тасовка шуза и сдача всех его карт с разными генераторами случайных чисел.
+ * У каждого потока своя колода; при algorithm = "SharedRandom" все колоды
+ * тасуются одним java.util.Random, каждый вызов которого - CAS общего зерна,
+ * что показывает цену общего генератора при нескольких потоках.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class DeckBenchmark {
+    private static final Random SHARED_RANDOM = new Random(42);
+
+    @Param({"SharedRandom", "Random", "L64X128MixRandom", "Xoshiro256PlusPlus",
+        "SplittableRandom"})
+    private String algorithm;
+
+    @Param({"1", "6"})
+    private int decks;
+
+    private Deck deck;
+
+    /**
+     * Создание колоды потока.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        deck = algorithm.equals("SharedRandom")
+                ? new Deck(decks, 1.0, SHARED_RANDOM)
+                : new Deck(decks, 1.0, algorithm, Thread.currentThread().getId());
+    }
+
+    /**
+     * Тасовка и сдача всего шуза.
+     *
+     * @return Сумма кодов сданных карт.
+     */
+    @Benchmark
+    public int shuffleAndDeal() {
+        deck.reshuffle();
+        int sum = 0;
+        while (deck.remaining() > 0) {
+            sum += deck.drawCode();
+        }
+        return sum;
+    }
+}
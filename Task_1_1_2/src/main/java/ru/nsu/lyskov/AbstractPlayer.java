@@ -1,6 +1,11 @@
 package ru.nsu.lyskov;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Абстрактный класс с полями и методами, общими для любого игрока в
@@ -8,76 +13,183 @@ import java.util.LinkedList;
  */
 public abstract class AbstractPlayer {
     /**
-     * hand - рука (карты игрока).
-     * score - количество очков, набранное игроком. (Сумма очков его карт).
+     * Бит открытой карты в ячейке руки (младшие 6 бит - код карты).
      */
-    private final LinkedList<Card> hand = new LinkedList<>();
-    private int score;
+    private static final int OPEN_FLAG = 1 << 6;
+    private static final int CODE_MASK = OPEN_FLAG - 1;
 
     /**
-     * Метод добавления карты в руку игрока.
-     * Установка полученной карте количества очков
-     * (например, а зависимости от других карт игрока туз принимает
-     * разное количество очков: 1 либо 11). Обновление суммы очков игрока.
+     * hand - рука (карты игрока): по байту на карту, код карты и признак
+     * открытой карты OPEN_FLAG; count - количество карт.
+     * nonAceScore - сумма очков всех карт, кроме тузов, aces - количество тузов.
+     * Сумма очков игрока выводится из них без обхода руки (см. score).
+     * firstAce - индекс первого туза руки (-1, если тузов нет):
+     * только он может давать 11 очков.
+     */
+    private byte[] hand = new byte[8];
+    private int count = 0;
+    private int nonAceScore = 0;
+    private int aces = 0;
+    private int firstAce = -1;
+
+    /**
+     * Представление руки списком карт (без копирования).
+     */
+    private final List<Card> handView = new AbstractList<>() {
+        @Override
+        public Card get(int index) {
+            checkIndex(index);
+            return Card.of(hand[index] & CODE_MASK, (hand[index] & OPEN_FLAG) != 0);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    };
+
+    /**
+     * Метод добавления карты в руку игрока за O(1) без создания объектов.
+     * Обновление суммы очков игрока.
      *
      * @param card Карта, которую получает игрок.
      */
     public void takeCard(Card card) {
-        hand.add(card);
-        if (card.getValue() >= 2 && card.getValue() <= 10) {
-            card.setCardScore(card.getValue());
-        } else if (card.getValue() >= 11 && card.getValue() <= 13) {
-            card.setCardScore(10);
-        } else {    //if (card.getValue() == 1)
-            card.setCardScore(score <= 10 ? 11 : 1);
+        if (count == hand.length) {
+            hand = Arrays.copyOf(hand, 2 * count);
+        }
+        int code = card.getCode();
+        hand[count] = (byte) (code | (card.isOpen() ? OPEN_FLAG : 0));
+        if (card.getValue() == 1) {
+            aces++;
+            if (firstAce < 0) {
+                firstAce = count;
+            }
+        } else {
+            nonAceScore += Card.scoreOf(code);
         }
-        updateScore();
+        count++;
     }
 
     /**
-     * Стандартный геттер руки игрока.
+     * Карты игрока.
      *
-     * @return Возвращает связный список всех карт игрока.
+     * @return Возвращает неизменяемый список всех карт игрока, отражающий
+     *         дальнейшие изменения руки.
      */
+    public List<Card> getCards() {
+        return handView;
+    }
+
+    /**
+     * Копия руки игрока.
+     *
+     * @return Связный список карт игрока; его изменение не меняет руку.
+     * @deprecated Копирует руку при каждом вызове, вместо этого используется getCards().
+     */
+    @Deprecated
     public LinkedList<Card> getHand() {
-        return hand;
+        return new LinkedList<>(handView);
+    }
+
+    /**
+     * Количество очков, которое карта приносит игроку
+     * (карты от двойки до десятки приносят соответствующее количество очков,
+     * валет, дама, король - десять очков, первый туз руки - 11 очков, если
+     * остальные карты дают не больше 10, иначе 1; остальные тузы - 1).
+     *
+     * @param index Номер карты в руке.
+     * @return Очки карты.
+     */
+    public int getCardScore(int index) {
+        checkIndex(index);
+        int code = hand[index] & CODE_MASK;
+        if (index == firstAce && nonAceScore <= 10) {
+            return 11;
+        }
+        return Card.scoreOf(code);
     }
 
     /**
-     * Геттер суммы очков игрока с ленивым подсчётом.
+     * Геттер суммы очков игрока. Вычисляется за O(1) из суммы очков карт
+     * без тузов и количества тузов.
      *
      * @return Возвращает суммарное количество очков всех карт игрока.
      */
     public int getScore() {
-        updateScore();
+        return score(nonAceScore, aces);
+    }
+
+    /**
+     * Сумма очков руки по правилам игры: первый туз даёт 11 очков, если
+     * остальные карты (кроме тузов) дают не больше 10, иначе 1; остальные тузы - 1.
+     *
+     * @param nonAceScore Сумма очков всех карт, кроме тузов.
+     * @param aces        Количество тузов.
+     * @return Сумма очков руки.
+     */
+    public static int score(int nonAceScore, int aces) {
+        int score = nonAceScore + aces;
+        if (aces > 0 && nonAceScore <= 10) {
+            score += 10;
+        }
         return score;
     }
 
     /**
-     * Игрок удаляет все свои карты.
+     * Открытие карты руки.
+     *
+     * @param index Номер карты в руке.
      */
-    public void foldCards() {
-        hand.clear();
+    void openCard(int index) {
+        checkIndex(index);
+        hand[index] |= OPEN_FLAG;
     }
 
     /**
-     * Метод перерасчёта количества очков у игрока с
-     * обновлением ценности тузов (1 или 11 очков за туз).
+     * Запись руки: количество карт и по байту на карту (код карты и признак
+     * открытой карты в бите 6).
+     *
+     * @param out Поток байт снимка.
      */
-    private void updateScore() {
-        score = 0;
-        for (Card card : hand) {
-            if (card.getValue() >= 2) {
-                score += card.getCardScore();
-            }
-        }
-        for (Card card : hand) {
-            if (card.getValue() == 1) {
-                int newAceScore = score <= 10 ? 11 : 1;
-                score += newAceScore;
-                card.setCardScore(newAceScore);
+    void writeHand(ByteArrayOutputStream out) {
+        VarInts.write(out, count);
+        out.write(hand, 0, count);
+    }
+
+    /**
+     * Восстановление руки, записанной writeHand.
+     *
+     * @param in Буфер снимка.
+     */
+    void readHand(ByteBuffer in) {
+        foldCards();
+        int count = VarInts.read(in);
+        for (int i = 0; i < count; i++) {
+            int packed = in.get();
+            if ((packed & ~(CODE_MASK | OPEN_FLAG)) != 0) {
+                throw new IllegalArgumentException("Malformed hand card");
             }
+            takeCard(Card.of(packed & CODE_MASK, (packed & OPEN_FLAG) != 0));
         }
     }
 
+    /**
+     * Игрок удаляет все свои карты.
+     */
+    public void foldCards() {
+        count = 0;
+        nonAceScore = 0;
+        aces = 0;
+        firstAce = -1;
+    }
+
+    /**
+     * Проверка номера карты в руке.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Card index " + index + " out of hand");
+        }
+    }
 }
@@ -1,8 +1,9 @@
 package ru.nsu.lyskov;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.Locale;
-import java.util.ResourceBundle;
 
 /**
  * Класс игры блэкджек. Описывает правила игры, инициализирует нужные данные,
@@ -10,93 +11,114 @@ import java.util.ResourceBundle;
  */
 public class Blackjack implements GameInterface {
     /**
-     * cardValues, cardSuits - массивы строковых названий
-     * ценностей и мастей соответствующих карт.
+     * renderer - вывод текста игры, buffer - буфер вывода для gameOutput()
+     * (null, если текст пишется сразу во внешний поток).
      */
-    private final String[] cardValues;
-    private final String[] cardSuits;
-    private final ResourceBundle resourceBundle;
+    private final GameRenderer renderer;
+    private final StringBuilder buffer;
 
     /**
      * Основные сущности игры: колода карт, игроки (на данном этапе
      * разработки только дилер и пользователь софта).
      */
-    private final Deck deck = new Deck();
+    private final Deck deck;
     private final LinkedList<AbstractPlayer> players = new LinkedList<>();
     private final Dealer dealer = new Dealer();
     private final User user = new User();
 
     /**
      * Номер играемого раунда, количество побед пользователя,
-     * количество побед дилера, строка вывода.
+     * количество побед дилера.
      */
     private int round = 1;
     private int userScore = 0;
     private int dealerScore = 0;
-    private String gameOutputBuffer = "";
 
     /**
      * Конструктор, инициализирует локализацию.
      * Добавляет минимальный набор игроков: пользователя и дилера.
+     * Текст игры накапливается в буфере и печатается методом gameOutput().
      *
      * @param localeName Название локали, на которой необходимо запустить
      *                   игру. По умолчанию en.
      */
     public Blackjack(String localeName) {
-        Locale locale = Locale.forLanguageTag(localeName);
-        resourceBundle = ResourceBundle.getBundle("localization", locale);
+        this(localeName, new StringBuilder(), true, new Deck());
+    }
+
+    /**
+     * Конструктор, в котором текст игры сразу пишется в поток output
+     * (GameRenderer.SILENT - без вывода).
+     *
+     * @param localeName Название локали, на которой необходимо запустить
+     *                   игру. По умолчанию en.
+     * @param output     Поток для текста игры.
+     */
+    public Blackjack(String localeName, Appendable output) {
+        this(localeName, output, false, new Deck());
+    }
 
-        cardValues = new String[]{ "",
-                resourceBundle.getString("Ace"),
-                resourceBundle.getString("Two"),
-                resourceBundle.getString("Three"),
-                resourceBundle.getString("Four"),
-                resourceBundle.getString("Five"),
-                resourceBundle.getString("Six"),
-                resourceBundle.getString("Seven"),
-                resourceBundle.getString("Eight"),
-                resourceBundle.getString("Nine"),
-                resourceBundle.getString("Ten"),
-                resourceBundle.getString("Jack"),
-                resourceBundle.getString("King"),
-                resourceBundle.getString("Queen")
-        };
+    /**
+     * Конструктор игры на заданном шузе, например new Deck(6, 0.75, "L64X128MixRandom", seed):
+     * с генератором, у которого фиксировано зерно, игра с теми же ходами повторяется.
+     * Шуз перетасовывается, когда сдача доходит до подрезной карты.
+     *
+     * @param localeName Название локали, на которой необходимо запустить
+     *                   игру. По умолчанию en.
+     * @param output     Поток для текста игры.
+     * @param deck       Шуз игры; пустая колода заполняется одной колодой при запуске.
+     */
+    public Blackjack(String localeName, Appendable output, Deck deck) {
+        this(localeName, output, false, deck);
+    }
 
-        cardSuits = new String[]{ "",
-                resourceBundle.getString("Clubs"),
-                resourceBundle.getString("Diamonds"),
-                resourceBundle.getString("Hearts"),
-                resourceBundle.getString("Spades")
-        };
+    /**
+     * Общий конструктор.
+     *
+     * @param localeName Название локали.
+     * @param output     Поток для текста игры.
+     * @param buffered   Флаг, указывающий, что output - внутренний буфер для gameOutput().
+     * @param deck       Шуз игры.
+     */
+    private Blackjack(String localeName, Appendable output, boolean buffered, Deck deck) {
+        renderer = new GameRenderer(Locale.forLanguageTag(localeName), output);
+        buffer = buffered ? (StringBuilder) output : null;
+        this.deck = deck;
 
         players.add(user);
         players.add(dealer);
     }
 
     /**
-     * Запуск игры: Приветствие, добавление колоды, её тасовка.
+     * Запуск игры: Приветствие, добавление колоды, её тасовка
+     * (если переданный шуз не заполнен заранее).
      */
     private void startGame() {
-        gameOutputBuffer += resourceBundle.getString("Greeting") + "\n";
-        deck.addFullDeck();
-        deck.shuffle();
+        renderer.message("Greeting").text("\n");
+        if (deck.remaining() == 0) {
+            deck.addFullDeck();
+            deck.shuffle();
+        }
     }
 
     /**
-     * Начало раунда: Вывод номера раунда, начальная раздача карт.
+     * Начало раунда: Вывод номера раунда, перетасовка шуза на подрезной карте,
+     * начальная раздача карт.
      */
     private void startRound() {
-        gameOutputBuffer += resourceBundle.getString("Round") + " " + round + "\n";
+        renderer.message("Round").text(" ").number(round).text("\n");
+        if (deck.isCutCardReached()) {
+            deck.reshuffle();
+        }
 
         user.takeCard(deck.removeCard(true));
         dealer.takeCard(deck.removeCard(true));
         user.takeCard(deck.removeCard(true));
         dealer.takeCard(deck.removeCard(false));
 
-        gameOutputBuffer += resourceBundle.getString("TheCardsAreDealt") + "\n";
+        renderer.message("TheCardsAreDealt").text("\n");
         playersHandsOut();
-        gameOutputBuffer += "\n" + resourceBundle.getString("YourMove") + "\n"
-                + resourceBundle.getString("EnterHint");
+        renderer.text("\n").message("YourMove").text("\n").message("EnterHint");
     }
 
     /**
@@ -115,19 +137,19 @@ public class Blackjack implements GameInterface {
               менее 17, дилер берёт по карте.
              */
             case "0":
-                gameOutputBuffer += "\n" + resourceBundle.getString("DealersMove") + "\n"
-                        + resourceBundle.getString("DealerOpenClosedCard") + " ";
-                Card openedCard = dealer.openClosedCard();
-                gameOutputBuffer += cardToString(openedCard) + "\n";
+                renderer.text("\n").message("DealersMove").text("\n")
+                        .message("DealerOpenClosedCard").text(" ");
+                int closedCard = dealer.getClosedCardIndex();
+                dealer.openClosedCard();
+                renderer.card(dealer, closedCard).text("\n");
                 playersHandsOut();
                 if (checkGameOver(false)) {
                     break;
                 }
                 while (dealer.getScore() < 17) {
-                    gameOutputBuffer += "\n" + resourceBundle.getString("DealerOpenCard") + " ";
-                    Card takenCard = deck.removeCard(true);
-                    dealer.takeCard(takenCard);
-                    gameOutputBuffer += cardToString(takenCard) + "\n";
+                    renderer.text("\n").message("DealerOpenCard").text(" ");
+                    dealer.takeCard(deck.removeCard(true));
+                    renderer.card(dealer, dealer.getCards().size() - 1).text("\n");
                     playersHandsOut();
                     if (checkGameOver(false)) {
                         break outer;
@@ -146,15 +168,14 @@ public class Blackjack implements GameInterface {
               Обработка случая, когда пользователь берёт следующую карту.
               */
             case "1":
-                Card takenCard = deck.removeCard(true);
-                user.takeCard(takenCard);
-                gameOutputBuffer += resourceBundle.getString("YouOpenedACard")
-                        + " " + cardToString(takenCard) + "\n";
+                user.takeCard(deck.removeCard(true));
+                renderer.message("YouOpenedACard").text(" ")
+                        .card(user, user.getCards().size() - 1).text("\n");
                 playersHandsOut();
                 if (checkGameOver(false)) {
                     break;
                 }
-                gameOutputBuffer += "\n" + resourceBundle.getString("EnterHint");
+                renderer.text("\n").message("EnterHint");
                 break;
             default:
                 throw new RuntimeException("Wrong input");
@@ -200,19 +221,20 @@ public class Blackjack implements GameInterface {
                 }
             }
 
-            gameOutputBuffer += "\n";
+            renderer.text("\n");
             if (youWon && dealerWon) {
-                gameOutputBuffer += resourceBundle.getString("DrawRound");
+                renderer.message("DrawRound");
                 userScore++;
                 dealerScore++;
             } else if (youWon) {
-                gameOutputBuffer += resourceBundle.getString("YouWon");
+                renderer.message("YouWon");
                 userScore++;
             } else if (dealerWon) {
-                gameOutputBuffer += resourceBundle.getString("YouLost");
+                renderer.message("YouLost");
                 dealerScore++;
             }
-            gameOutputBuffer += " " + gameScoreToString();
+            renderer.text(" ");
+            gameScoreOut();
 
             round++;
             for (AbstractPlayer player : players) {
@@ -226,89 +248,73 @@ public class Blackjack implements GameInterface {
     }
 
     /**
-     * Функция, выводящая в буферную строку о доступной пользователю
+     * Функция, выводящая информацию о доступной пользователю
      * информации о картах на руках игроков.
      */
     private void playersHandsOut() {
+        if (!renderer.isEnabled()) {
+            return;
+        }
         for (AbstractPlayer player : players) {
             if (player instanceof User) {
-                gameOutputBuffer += "\t" + resourceBundle.getString("YourCards");
+                renderer.text("\t").message("YourCards");
             } else if (player instanceof Dealer) {
-                gameOutputBuffer += "\t" + resourceBundle.getString("DealersCards");
+                renderer.text("\t").message("DealersCards");
             }
-            gameOutputBuffer += " " + handToString(player) + "\n";
+            renderer.text(" ").hand(player).text("\n");
         }
     }
 
     /**
-     * Функция, возвращающая текст вывода игры и очищающая буферную строку.
-     *
-     * @return Возвращает текст вывода игры.
+     * Функция, выводящая информацию о счёте игры.
      */
-    private String flushOutput() {
-        String temp = gameOutputBuffer;
-        gameOutputBuffer = "";
-        return temp;
+    private void gameScoreOut() {
+        renderer.number(userScore).text(":").number(dealerScore).text(" ");
+        if (userScore > dealerScore) {
+            renderer.message("YourFavor");
+        } else if (userScore < dealerScore) {
+            renderer.message("NotYourFavor");
+        } else {
+            renderer.message("DrawFavor");
+        }
+        renderer.text("\n\n");
     }
 
     /**
-     * Функция, возвращающая строку с доступной пользователю
-     * информацией о руке конкретного игрока.
+     * Запись состояния игры для снимка (GameSnapshot): номер раунда, счёт,
+     * шуз и руки пользователя и дилера.
      *
-     * @param player Игрок, информацию о руке которого нужно получить.
-     * @return Строка с доступной пользователю информацией о картах игрока.
+     * @param out Поток байт снимка.
      */
-    private String handToString(AbstractPlayer player) {
-        boolean hasClosedCard = false;
-        String string = "[";
-        for (Card card : player.getHand()) {
-            string += cardToString(card) + ", ";
-            if (!card.isOpen()) {
-                hasClosedCard = true;
-            }
-        }
-        string = string.substring(0, string.length() - 2);
-        string += "]";
-        if (!hasClosedCard) {
-            string += " -> " + player.getScore();
-        }
-        return string;
+    void writeState(ByteArrayOutputStream out) {
+        VarInts.write(out, round);
+        VarInts.write(out, userScore);
+        VarInts.write(out, dealerScore);
+        deck.writeState(out);
+        user.writeHand(out);
+        dealer.writeHand(out);
     }
 
     /**
-     * Функция, возвращающая информацию о карте в строковом виде.
+     * Восстановление состояния, записанного writeState. Текст игры не выводится.
      *
-     * @param card Карта, информацию о которой необходимо получить.
-     * @return Возвращает локализованную строку с информацией о карте.
+     * @param in Буфер снимка.
      */
-    private String cardToString(Card card) {
-        String string = "";
-        if (card.isOpen()) {
-            string += cardValues[card.getValue()] + " "
-                    + cardSuits[card.getSuit()] + " ("
-                    + card.getCardScore() + ")";
-        } else {
-            string += resourceBundle.getString("ClosedCard");
-        }
-        return string;
+    void readState(ByteBuffer in) {
+        round = VarInts.read(in);
+        userScore = VarInts.read(in);
+        dealerScore = VarInts.read(in);
+        deck.readState(in);
+        user.readHand(in);
+        dealer.readHand(in);
     }
 
-    /**
-     * Функция, возвращающая информацию о счёте игры.
-     *
-     * @return Возвращает строку с информацией о счёте игры.
-     */
-    private String gameScoreToString() {
-        String string = userScore + ":" + dealerScore + " ";
-        if (userScore > dealerScore) {
-            string += resourceBundle.getString("YourFavor");
-        } else if (userScore < dealerScore) {
-            string += resourceBundle.getString("NotYourFavor");
-        } else {
-            string += resourceBundle.getString("DrawFavor");
-        }
-        string += "\n\n";
-        return string;
+    Deck getDeck() {
+        return deck;
+    }
+
+    int getRound() {
+        return round;
     }
 
     /**
@@ -333,10 +339,14 @@ public class Blackjack implements GameInterface {
     }
 
     /**
-     * Вывод происходящего в игре через консоль.
+     * Вывод происходящего в игре через консоль. Если текст игры пишется
+     * во внешний поток, он уже выведен, и метод ничего не делает.
      */
     @Override
     public void gameOutput() {
-        System.out.println(flushOutput());
+        if (buffer != null) {
+            System.out.println(buffer);
+            buffer.setLength(0);
+        }
     }
 }
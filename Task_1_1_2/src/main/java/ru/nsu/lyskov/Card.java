@@ -4,39 +4,134 @@ package ru.nsu.lyskov;
  * Класс карты. Поля:
  * isOpen - видимость пользователю (рубашкой вверх или вниз),
  * value - ценность карты (туз, двойка, тройка, ..., король),
- * suit - масть карты (черви, пики, ...),
- * cardScore - количество очков, которое карта приносит пользователю.
- * (карты от двойки до десятки приносят соответствующее количество очков,
- * валет, дама, король - десять очков, туз - может давать как 1 очко, так и 11).
+ * suit - масть карты (черви, пики, ...).
+ * Карта неизменяема, поэтому все 104 различные карты (52 закрытые и
+ * 52 открытые) создаются один раз и переиспользуются (см. of): колода и
+ * руки хранят только коды карт. Очки карты зависят от руки, в которой она
+ * лежит (туз даёт 1 или 11 очков), и считаются игроком (AbstractPlayer).
+ * Методы изменяемой карты прежних версий (open, getCardScore, setCardScore)
+ * сохранены как устаревшие.
  */
 public class Card {
-    private boolean isOpen;
+    /**
+     * Количество различных карт в стандартной колоде. Карта кодируется числом
+     * code = (suit - 1) * 13 + (value - 1) из диапазона [0..51], что позволяет
+     * хранить колоды и руки в массивах byte[] без создания объектов.
+     */
+    public static final int CODES = 52;
+    private static final int VALUES = 13;
+
+    private static final Card[] CLOSED = new Card[CODES];
+    private static final Card[] OPENED = new Card[CODES];
+
+    static {
+        for (int code = 0; code < CODES; code++) {
+            CLOSED[code] = new Card(rankOf(code), suitOf(code), false, true);
+            OPENED[code] = new Card(rankOf(code), suitOf(code), true, true);
+        }
+    }
+
     private final int value;
     private final int suit;
-    private int cardScore = 0;
+    /**
+     * Флаг общего экземпляра (см. of). Только карту, созданную конструктором,
+     * можно открыть устаревшим методом open.
+     */
+    private final boolean shared;
+    private boolean isOpen;
 
     /**
-     * Конструктор класса, проверяющий корректность введённых данных.
+     * Конструктор закрытой карты, проверяющий корректность введённых данных.
+     * Для карт из колоды вместо него используется Card.of.
      *
      * @param value Ценность карты
      * @param suit  Масть карты
      */
     public Card(int value, int suit) {
-        isOpen = false;
+        this(value, suit, false, false);
+
+        if (value < 1 || value > 13 || suit < 1 || suit > 4) {
+            throw new RuntimeException("Card value not in [1..13] or card suit not in [1..4]");
+        }
+    }
+
+    /**
+     * Конструктор без проверки для общих экземпляров карт.
+     */
+    private Card(int value, int suit, boolean isOpen, boolean shared) {
+        this.isOpen = isOpen;
         this.value = value;
         this.suit = suit;
+        this.shared = shared;
+    }
 
+    /**
+     * Общий экземпляр карты по её коду и видимости.
+     *
+     * @param code Код карты из диапазона [0..51].
+     * @param open Флаг открытой карты.
+     * @return Карта (без создания объекта).
+     */
+    public static Card of(int code, boolean open) {
+        checkCode(code);
+        return open ? OPENED[code] : CLOSED[code];
+    }
+
+    /**
+     * Закрытая карта по её коду.
+     *
+     * @param code Код карты из диапазона [0..51].
+     * @return Карта (без создания объекта).
+     */
+    public static Card fromCode(int code) {
+        return of(code, false);
+    }
+
+    /**
+     * Код карты с заданными ценностью и мастью.
+     *
+     * @param value Ценность карты.
+     * @param suit  Масть карты.
+     * @return Код карты из диапазона [0..51].
+     */
+    public static int codeOf(int value, int suit) {
         if (value < 1 || value > 13 || suit < 1 || suit > 4) {
             throw new RuntimeException("Card value not in [1..13] or card suit not in [1..4]");
         }
+        return (suit - 1) * VALUES + (value - 1);
     }
 
-    public int getCardScore() {
-        return cardScore;
+    public static int rankOf(int code) {
+        return code % VALUES + 1;
     }
 
-    public void setCardScore(int cardScore) {
-        this.cardScore = cardScore;
+    public static int suitOf(int code) {
+        return code / VALUES + 1;
+    }
+
+    /**
+     * Очки карты без учёта остальных карт руки: от двойки до десятки - по
+     * номиналу, картинки - 10, туз - 1 (одиннадцать очков туза учитываются
+     * при подсчёте суммы руки).
+     *
+     * @param code Код карты.
+     * @return Очки карты.
+     */
+    public static int scoreOf(int code) {
+        return Math.min(rankOf(code), 10);
+    }
+
+    /**
+     * Проверка корректности кода карты.
+     */
+    private static void checkCode(int code) {
+        if (code < 0 || code >= CODES) {
+            throw new RuntimeException("Card code not in [0..51]");
+        }
+    }
+
+    public int getCode() {
+        return (suit - 1) * VALUES + (value - 1);
     }
 
     public int getValue() {
@@ -47,11 +142,67 @@ public class Card {
         return suit;
     }
 
+    public boolean isOpen() {
+        return isOpen;
+    }
+
+    /**
+     * Та же карта, но открытая (лицом вверх).
+     *
+     * @return Открытый общий экземпляр этой карты.
+     */
+    public Card opened() {
+        return OPENED[getCode()];
+    }
+
+    /**
+     * Открытие карты, созданной конструктором.
+     *
+     * @throws UnsupportedOperationException Карта - общий экземпляр (см. of).
+     * @deprecated Карты неизменяемы, вместо этого используется opened().
+     */
+    @Deprecated
     public void open() {
+        if (shared) {
+            throw new UnsupportedOperationException("Shared card is immutable, use opened()");
+        }
         isOpen = true;
     }
 
-    public boolean isOpen() {
-        return isOpen;
+    /**
+     * Очки карты без учёта руки (туз - 1 очко).
+     *
+     * @return Очки карты, как Card.scoreOf(getCode()).
+     * @deprecated Очки туза зависят от руки: используется AbstractPlayer.getCardScore.
+     */
+    @Deprecated
+    public int getCardScore() {
+        return scoreOf(getCode());
+    }
+
+    /**
+     * Очки карты больше не хранятся в карте, поэтому их нельзя задать.
+     *
+     * @param cardScore Очки карты.
+     * @throws UnsupportedOperationException Всегда.
+     * @deprecated Очки считаются игроком: используется AbstractPlayer.getCardScore.
+     */
+    @Deprecated
+    public void setCardScore(int cardScore) {
+        throw new UnsupportedOperationException("Card score is computed by the player");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Card)) {
+            return false;
+        }
+        Card card = (Card) other;
+        return card.value == value && card.suit == suit && card.isOpen == isOpen;
+    }
+
+    @Override
+    public int hashCode() {
+        return getCode() * 2 + (isOpen ? 1 : 0);
     }
 }
@@ -11,13 +11,12 @@ public class Dealer extends AbstractPlayer {
      * @return Возвращает карту, которая лежала "рубашкой вверх".
      */
     public Card openClosedCard() {
-        for (Card card : getHand()) {
-            if (!card.isOpen()) {
-                card.open();
-                return card;
-            }
+        int index = getClosedCardIndex();
+        if (index < 0) {
+            throw new RuntimeException("Tried to open card, but dealer don't have cards");
         }
-        throw new RuntimeException("Tried to open card, but dealer don't have cards");
+        openCard(index);
+        return getCards().get(index);
     }
 
     /**
@@ -26,11 +25,20 @@ public class Dealer extends AbstractPlayer {
      * @return Возвращает true, если у дилера всё ещё закрыта карта.
      */
     public boolean isCardOpened() {
-        for (Card card : getHand()) {
-            if (!card.isOpen()) {
-                return false;
+        return getClosedCardIndex() < 0;
+    }
+
+    /**
+     * Номер закрытой карты в руке дилера.
+     *
+     * @return Номер первой закрытой карты или -1, если все карты открыты.
+     */
+    public int getClosedCardIndex() {
+        for (int i = 0; i < getCards().size(); i++) {
+            if (!getCards().get(i).isOpen()) {
+                return i;
             }
         }
-        return true;
+        return -1;
     }
 }
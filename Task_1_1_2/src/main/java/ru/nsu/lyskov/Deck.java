@@ -1,31 +1,258 @@
 package ru.nsu.lyskov;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
- * Класс колоды карт.
+ * Класс колоды карт - "шуза" из одной или нескольких стандартных колод.
+ * Карты хранятся кодами (см. Card.CODES) в массиве byte[]: карты с индексами
+ * [0, cursor) уже сданы, [cursor, size) ещё в шузе. Тасовка - алгоритм
+ * Фишера-Йетса на месте, взятие карты - сдвиг курсора, без создания объектов.
+ * Подрезная карта кладётся так, чтобы до перетасовки была сдана доля penetration
+ * шуза; достижение её проверяется методом isCutCardReached().
+ * Генератор случайных чисел у каждой колоды свой: по умолчанию
+ * RandomGenerator.getDefault() (без общего атомарного состояния, как у
+ * java.util.Random), либо переданный или выбранный по имени алгоритма JDK 17.
  */
 public class Deck {
-    private final LinkedList<Card> cards = new LinkedList<>();
+    private final int decks;
+    private final double penetration;
+    private final RandomGenerator random;
+    private byte[] cards;
+    private int size = 0;
+    private int cursor = 0;
+    private int cutCard = 0;
+    /**
+     * Для журнала ходов (MoveJournal): получатель порядка карт после каждой тасовки
+     * и порядок, который нужно применить при следующей тасовке вместо случайного.
+     */
+    private Consumer<byte[]> shuffleListener = null;
+    private byte[] nextOrder = null;
+
+    /**
+     * Конструктор пустой колоды. Карты добавляются методом addFullDeck(), а
+     * если колода закончилась, она заполняется одной колодой из 52 карт заново.
+     */
+    public Deck() {
+        random = RandomGenerator.getDefault();
+        decks = 1;
+        penetration = 1.0;
+        cards = new byte[Card.CODES];
+    }
+
+    /**
+     * Конструктор перетасованного шуза из нескольких колод.
+     *
+     * @param decks       Количество колод в шузе.
+     * @param penetration Доля шуза, которая сдаётся до подрезной карты, из (0..1].
+     */
+    public Deck(int decks, double penetration) {
+        this(decks, penetration, RandomGenerator.getDefault());
+    }
+
+    /**
+     * Конструктор перетасованного шуза с заданным генератором случайных чисел
+     * (например, SplittableRandom с фиксированным зерном для воспроизводимой симуляции).
+     *
+     * @param decks       Количество колод в шузе.
+     * @param penetration Доля шуза, которая сдаётся до подрезной карты, из (0..1].
+     * @param random      Генератор для тасовки.
+     */
+    public Deck(int decks, double penetration, RandomGenerator random) {
+        checkShoe(decks, penetration);
+        this.decks = decks;
+        this.penetration = penetration;
+        this.random = random;
+        cards = new byte[decks * Card.CODES];
+        for (int i = 0; i < decks; i++) {
+            addFullDeck();
+        }
+        shuffle();
+    }
+
+    /**
+     * Конструктор перетасованного шуза с генератором заданного алгоритма
+     * и зерном: одинаковые параметры дают одинаковую последовательность тасовок.
+     *
+     * @param decks       Количество колод в шузе.
+     * @param penetration Доля шуза, которая сдаётся до подрезной карты, из (0..1].
+     * @param algorithm   Имя алгоритма генератора (см. RandomGeneratorFactory),
+     *                    например "L64X128MixRandom", "Xoshiro256PlusPlus",
+     *                    "SplittableRandom".
+     * @param seed        Зерно генератора.
+     */
+    public Deck(int decks, double penetration, String algorithm, long seed) {
+        this(decks, penetration, generator(algorithm, seed));
+    }
+
+    /**
+     * Генератор заданного алгоритма с зерном.
+     *
+     * @param algorithm Имя алгоритма генератора.
+     * @param seed      Зерно генератора.
+     * @return Новый генератор.
+     * @throws IllegalArgumentException Неизвестный алгоритм.
+     */
+    public static RandomGenerator generator(String algorithm, long seed) {
+        return RandomGeneratorFactory.of(algorithm).create(seed);
+    }
+
+    /**
+     * Проверка параметров шуза.
+     *
+     * @param decks       Количество колод в шузе.
+     * @param penetration Доля шуза, которая сдаётся до подрезной карты.
+     */
+    static void checkShoe(int decks, double penetration) {
+        if (decks < 1) {
+            throw new IllegalArgumentException("Number of decks must be positive");
+        }
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Penetration must be in (0..1]");
+        }
+    }
 
     /**
      * Добавление в колоду полной стандартной
      * колоды из 52 карт, с 4 мастями.
      */
     public void addFullDeck() {
-        for (int i = 1; i <= 4; i++) {
-            for (int j = 1; j <= 13; j++) {
-                cards.add(new Card(j, i));
-            }
+        if (size + Card.CODES > cards.length) {
+            cards = Arrays.copyOf(cards, size + Card.CODES);
+        }
+        for (int code = 0; code < Card.CODES; code++) {
+            cards[size++] = (byte) code;
         }
     }
 
     /**
-     * Перетасовка колоды.
+     * Перетасовка несданных карт (алгоритм Фишера-Йетса) и установка подрезной карты.
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        byte[] cards = this.cards;
+        if (nextOrder != null) {
+            if (nextOrder.length != size - cursor) {
+                throw new RuntimeException("Recorded shuffle does not match the deck");
+            }
+            System.arraycopy(nextOrder, 0, cards, cursor, nextOrder.length);
+            nextOrder = null;
+        } else {
+            for (int i = size - 1; i > cursor; i--) {
+                int j = cursor + random.nextInt(i - cursor + 1);
+                byte swap = cards[i];
+                cards[i] = cards[j];
+                cards[j] = swap;
+            }
+        }
+        cutCard = cursor + (int) Math.ceil((size - cursor) * penetration);
+        if (shuffleListener != null) {
+            shuffleListener.accept(Arrays.copyOfRange(cards, cursor, size));
+        }
+    }
+
+    /**
+     * Возврат всех сданных карт в шуз и его перетасовка. Пустая колода
+     * заполняется заново.
+     */
+    public void reshuffle() {
+        if (size == 0) {
+            for (int i = 0; i < decks; i++) {
+                addFullDeck();
+            }
+        }
+        cursor = 0;
+        shuffle();
+    }
+
+    /**
+     * Проверка, что сдача дошла до подрезной карты и шуз пора перетасовать
+     * (обычно проверяется перед началом раунда).
+     *
+     * @return true, если подрезная карта достигнута.
+     */
+    public boolean isCutCardReached() {
+        return cursor >= cutCard;
+    }
+
+    /**
+     * Количество несданных карт.
+     *
+     * @return Число карт в шузе.
+     */
+    public int remaining() {
+        return size - cursor;
+    }
+
+    /**
+     * Взятие кода карты из колоды без создания объектов. Если карты
+     * закончились, шуз перетасовывается.
+     *
+     * @return Код карты (см. Card.codeOf).
+     */
+    public int drawCode() {
+        if (cursor >= size) {
+            reshuffle();
+        }
+        return cards[cursor++];
+    }
+
+    /**
+     * Установка получателя порядка несданных карт после каждой тасовки.
+     *
+     * @param shuffleListener Получатель или null.
+     */
+    void setShuffleListener(Consumer<byte[]> shuffleListener) {
+        this.shuffleListener = shuffleListener;
+    }
+
+    /**
+     * Задание порядка несданных карт для следующей тасовки (воспроизведение журнала).
+     *
+     * @param order Коды карт в порядке сдачи.
+     */
+    void setNextOrder(byte[] order) {
+        nextOrder = order;
+    }
+
+    /**
+     * Запись состояния шуза: размер, курсор, подрезная карта и коды всех карт.
+     *
+     * @param out Поток байт снимка.
+     */
+    void writeState(ByteArrayOutputStream out) {
+        VarInts.write(out, size);
+        VarInts.write(out, cursor);
+        VarInts.write(out, cutCard);
+        out.write(cards, 0, size);
+    }
+
+    /**
+     * Восстановление состояния, записанного writeState.
+     *
+     * @param in Буфер снимка.
+     */
+    void readState(ByteBuffer in) {
+        int size = VarInts.read(in);
+        int cursor = VarInts.read(in);
+        int cutCard = VarInts.read(in);
+        if (cursor > size) {
+            throw new IllegalArgumentException("Deck cursor is out of range");
+        }
+        byte[] cards = new byte[Math.max(size, Card.CODES)];
+        in.get(cards, 0, size);
+        for (int i = 0; i < size; i++) {
+            if (cards[i] < 0 || cards[i] >= Card.CODES) {
+                throw new IllegalArgumentException("Card code not in [0..51]");
+            }
+        }
+        this.cards = cards;
+        this.size = size;
+        this.cursor = cursor;
+        this.cutCard = cutCard;
     }
 
     /**
@@ -33,18 +260,10 @@ public class Deck {
      *
      * @param open Флаг, указывающий на то, что карту можно
      *             открыть (не оставлять рубашкой вниз).
-     * @return Возвращает карту, взятую из колоды.
+     * @return Возвращает карту, взятую из колоды (общий экземпляр, см. Card.of).
      */
     public Card removeCard(boolean open) {
-        if (cards.isEmpty()) {
-            addFullDeck();
-            shuffle();
-        }
-        Card takenCard = cards.pop();
-        if (open) {
-            takenCard.open();
-        }
-        return takenCard;
+        return Card.of(drawCode(), open);
     }
 
 }
@@ -0,0 +1,388 @@
+package ru.nsu.lyskov;
+
+/**
+ * Точный расчёт математического ожидания (EV) решений игрока по правилам Blackjack
+ * (те же правила, что в Simulator) с учётом состава шуза: вероятности берутся
+ * из количества оставшихся карт каждого ранга, без повторной симуляции.
+ * Ранги - очки карты: 1 (туз), 2..9 и 10 (десятки и картинки).
+ * Состав шуза упакован в long: по 6 бит на количество карт рангов 1..9 и 8 бит
+ * на десятки, поэтому взятие карты - вычитание константы. Для фиксированной
+ * открытой карты дилера состав однозначно определяет руку игрока (это исходный
+ * шуз без открытой карты и без карт игрока), поэтому EV состояний игрока кэшируется
+ * в примитивных таблицах LongDoubleMap по одному лишь составу. Добор дилера
+ * кэшируется по составу и руке дилера общим кэшем для всех остановок игрока.
+ * Экземпляр не потокобезопасен.
+ */
+public class EvSolver {
+    private static final int RANKS = 10;
+    private static final int SMALL_RANK_BITS = 6;
+    private static final int TEN_BITS = 8;
+    private static final int ACE_SHIFT = 8;
+    private static final int ACE = 1 << ACE_SHIFT;
+    /**
+     * Индекс перебора в распределении итоговых сумм дилера.
+     */
+    private static final int BUST = 22;
+    private static final int EXPECTED_STATES = 1 << 12;
+    /**
+     * Руки дилера, который ещё добирает: сумма без тузов и количество тузов,
+     * каждое от 0 до 16 (сумма с тузами за 1 меньше 17).
+     */
+    private static final int DEALER_HANDS = 17 * 17;
+
+    /**
+     * SHIFTS[r], UNITS[r] - сдвиг поля ранга r в упакованном составе и единица этого поля.
+     */
+    private static final int[] SHIFTS = new int[RANKS + 1];
+    private static final long[] UNITS = new long[RANKS + 1];
+    private static final long[] MAX_COUNTS = new long[RANKS + 1];
+
+    static {
+        for (int rank = 1; rank <= RANKS; rank++) {
+            SHIFTS[rank] = (rank - 1) * SMALL_RANK_BITS;
+            UNITS[rank] = 1L << SHIFTS[rank];
+            MAX_COUNTS[rank] = (1L << (rank == RANKS ? TEN_BITS : SMALL_RANK_BITS)) - 1;
+        }
+    }
+
+    private final long shoe;
+    private final int shoeSize;
+    private final LongDoubleMap[] standCache = new LongDoubleMap[RANKS + 1];
+    private final LongDoubleMap[] bestCache = new LongDoubleMap[RANKS + 1];
+    /**
+     * Кэш EV добора дилера на всё время жизни решателя: таблица выбирается по руке
+     * дилера, ключ - состав шуза. Карты игрока - это исходный шуз без состава и без
+     * руки дилера, так что сумма игрока ключом уже определена. Одни и те же состояния
+     * дилера встречаются после разных остановок игрока, поэтому добор считается
+     * один раз на всё решение. Таблицы создаются по мере надобности.
+     */
+    private final LongDoubleMap[] dealerCache = new LongDoubleMap[DEALER_HANDS];
+
+    /**
+     * Конструктор для полного шуза из нескольких колод.
+     *
+     * @param decks Количество колод (от 1 до 15).
+     */
+    public EvSolver(int decks) {
+        this(fullShoe(decks));
+    }
+
+    /**
+     * Конструктор для шуза заданного состава.
+     *
+     * @param rankCounts Количество карт рангов 1..10 (10 элементов; не больше 63 карт
+     *                   каждого ранга 1..9 и не больше 255 десяток).
+     */
+    public EvSolver(int[] rankCounts) {
+        if (rankCounts.length != RANKS) {
+            throw new IllegalArgumentException("Expected counts of 10 ranks");
+        }
+        long shoe = 0;
+        int shoeSize = 0;
+        for (int rank = 1; rank <= RANKS; rank++) {
+            int count = rankCounts[rank - 1];
+            if (count < 0 || count > MAX_COUNTS[rank]) {
+                throw new IllegalArgumentException("Count of rank " + rank + " is out of range");
+            }
+            shoe += count * UNITS[rank];
+            shoeSize += count;
+        }
+        this.shoe = shoe;
+        this.shoeSize = shoeSize;
+        for (int rank = 1; rank <= RANKS; rank++) {
+            standCache[rank] = new LongDoubleMap(EXPECTED_STATES);
+            bestCache[rank] = new LongDoubleMap(EXPECTED_STATES);
+        }
+    }
+
+    /**
+     * Распределение итоговой суммы дилера при заданной открытой карте; закрытая
+     * карта и добор берутся из шуза без открытой карты.
+     *
+     * @param upCard Ранг открытой карты дилера.
+     * @return Массив из 23 вероятностей: элемент i - вероятность закончить с суммой i
+     *         (меньше 17 - только если в шузе кончились карты), элемент 22 - перебор.
+     */
+    public double[] dealerOutcomes(int upCard) {
+        long composition = take(shoe, upCard);
+        double[] outcomes = new double[BUST + 1];
+        dealerTotals(composition, shoeSize - 1, addCard(0, upCard), 1.0, outcomes);
+        return outcomes;
+    }
+
+    /**
+     * EV остановки: средний выигрыш игрока на единицу ставки, если он закончит
+     * ход с данными картами.
+     *
+     * @param upCard      Ранг открытой карты дилера.
+     * @param playerCards Ранги карт игрока.
+     * @return EV от -1 до 1.
+     */
+    public double standEv(int upCard, int... playerCards) {
+        return stand(upCard, compositionOf(upCard, playerCards),
+                shoeSize - 1 - playerCards.length, handOf(playerCards));
+    }
+
+    /**
+     * EV взятия карты с дальнейшей оптимальной игрой.
+     *
+     * @param upCard      Ранг открытой карты дилера.
+     * @param playerCards Ранги карт игрока.
+     * @return EV от -1 до 1.
+     */
+    public double hitEv(int upCard, int... playerCards) {
+        return hit(upCard, compositionOf(upCard, playerCards),
+                shoeSize - 1 - playerCards.length, handOf(playerCards));
+    }
+
+    /**
+     * Оптимальное решение игрока.
+     *
+     * @param upCard      Ранг открытой карты дилера.
+     * @param playerCards Ранги карт игрока.
+     * @return true, если брать карту выгоднее, чем остановиться.
+     */
+    public boolean shouldHit(int upCard, int... playerCards) {
+        return hitEv(upCard, playerCards) > standEv(upCard, playerCards);
+    }
+
+    /**
+     * EV раунда при оптимальной игре с учётом состава: перебор всех начальных
+     * раздач (игрок, дилер открытая, игрок) с их вероятностями. Преимущество
+     * казино равно этому значению со знаком минус.
+     *
+     * @return EV раунда на единицу ставки.
+     */
+    public double expectedValue() {
+        double expectedValue = 0;
+        for (int first = 1; first <= RANKS; first++) {
+            double firstProbability = probability(shoe, shoeSize, first);
+            if (firstProbability == 0) {
+                continue;
+            }
+            long afterFirst = take(shoe, first);
+            for (int upCard = 1; upCard <= RANKS; upCard++) {
+                double upProbability = probability(afterFirst, shoeSize - 1, upCard);
+                if (upProbability == 0) {
+                    continue;
+                }
+                long afterUp = take(afterFirst, upCard);
+                for (int second = 1; second <= RANKS; second++) {
+                    double secondProbability = probability(afterUp, shoeSize - 2, second);
+                    if (secondProbability == 0) {
+                        continue;
+                    }
+                    double probability = firstProbability * upProbability * secondProbability;
+                    expectedValue += probability * best(upCard, take(afterUp, second),
+                            shoeSize - 3, addCard(addCard(0, first), second));
+                }
+            }
+        }
+        return expectedValue;
+    }
+
+    /**
+     * Лучшее из EV остановки и взятия карты (с кэшем).
+     */
+    private double best(int upCard, long composition, int size, int hand) {
+        double cached = bestCache[upCard].get(composition);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double best = Math.max(stand(upCard, composition, size, hand),
+                hit(upCard, composition, size, hand));
+        bestCache[upCard].put(composition, best);
+        return best;
+    }
+
+    /**
+     * EV взятия карты: 21 - немедленная победа, перебор - поражение,
+     * иначе оптимальная игра дальше.
+     */
+    private double hit(int upCard, long composition, int size, int hand) {
+        if (size == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double expectedValue = 0;
+        for (int rank = 1; rank <= RANKS; rank++) {
+            long count = count(composition, rank);
+            if (count == 0) {
+                continue;
+            }
+            int next = addCard(hand, rank);
+            int score = score(next);
+            double value;
+            if (score == 21) {
+                value = 1;
+            } else if (score > 21) {
+                value = -1;
+            } else {
+                value = best(upCard, composition - UNITS[rank], size - 1, next);
+            }
+            expectedValue += value * count / size;
+        }
+        return expectedValue;
+    }
+
+    /**
+     * EV остановки (с кэшем). На 21 игрок выигрывает, если только закрытая карта
+     * не даёт дилеру 21 (тогда ничья); иначе дилер добирает до 17 и
+     * 21 у дилера - поражение, перебор - победа, остальное - сравнение сумм.
+     */
+    private double stand(int upCard, long composition, int size, int hand) {
+        double cached = standCache[upCard].get(composition);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        int playerScore = score(hand);
+        int dealerHand = addCard(0, upCard);
+        double expectedValue;
+        if (playerScore == 21) {
+            double dealerTwentyOne = 0;
+            for (int rank = 1; rank <= RANKS; rank++) {
+                if (score(addCard(dealerHand, rank)) == 21) {
+                    dealerTwentyOne += probability(composition, size, rank);
+                }
+            }
+            expectedValue = 1 - dealerTwentyOne;
+        } else {
+            expectedValue = dealer(composition, size, dealerHand, playerScore);
+        }
+        standCache[upCard].put(composition, expectedValue);
+        return expectedValue;
+    }
+
+    /**
+     * EV игрока, остановившегося с суммой playerScore, при текущей руке дилера:
+     * дилер добирает, пока у него меньше 17.
+     */
+    private double dealer(long composition, int size, int hand, int playerScore) {
+        int score = score(hand);
+        if (score >= 17 || size == 0) {
+            if (score > 21) {
+                return 1;
+            }
+            return score == 21 ? -1 : Integer.signum(playerScore - score);
+        }
+        int table = (hand & (ACE - 1)) * 17 + (hand >>> ACE_SHIFT);
+        LongDoubleMap cache = dealerCache[table];
+        if (cache == null) {
+            cache = new LongDoubleMap(EXPECTED_STATES);
+            dealerCache[table] = cache;
+        }
+        double cached = cache.get(composition);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double expectedValue = 0;
+        for (int rank = 1; rank <= RANKS; rank++) {
+            long count = count(composition, rank);
+            if (count != 0) {
+                expectedValue += dealer(composition - UNITS[rank], size - 1,
+                        addCard(hand, rank), playerScore) * count / size;
+            }
+        }
+        cache.put(composition, expectedValue);
+        return expectedValue;
+    }
+
+    /**
+     * Распределение итоговых сумм дилера: вероятность каждой суммы добавляется в totals.
+     */
+    private static void dealerTotals(long composition, int size, int hand, double probability,
+                                     double[] totals) {
+        int score = score(hand);
+        if (score >= 17 || size == 0) {
+            totals[Math.min(score, BUST)] += probability;
+            return;
+        }
+        for (int rank = 1; rank <= RANKS; rank++) {
+            long count = count(composition, rank);
+            if (count != 0) {
+                dealerTotals(composition - UNITS[rank], size - 1, addCard(hand, rank),
+                        probability * count / size, totals);
+            }
+        }
+    }
+
+    /**
+     * Состав шуза без открытой карты дилера и карт игрока.
+     */
+    private long compositionOf(int upCard, int[] playerCards) {
+        long composition = take(shoe, upCard);
+        for (int card : playerCards) {
+            composition = take(composition, card);
+        }
+        return composition;
+    }
+
+    /**
+     * Упакованная рука игрока; рука с перебором не является состоянием игры.
+     */
+    private static int handOf(int[] playerCards) {
+        int hand = 0;
+        for (int card : playerCards) {
+            hand = addCard(hand, card);
+        }
+        if (score(hand) > 21) {
+            throw new IllegalArgumentException("Player hand is over 21");
+        }
+        return hand;
+    }
+
+    /**
+     * Состав полного шуза: по 4 карты рангов 1..9 и 16 десяток на колоду.
+     */
+    private static int[] fullShoe(int decks) {
+        if (decks < 1 || decks > 15) {
+            throw new IllegalArgumentException("Number of decks must be in [1..15]");
+        }
+        int[] rankCounts = new int[RANKS];
+        for (int rank = 1; rank <= RANKS; rank++) {
+            rankCounts[rank - 1] = (rank == RANKS ? 16 : 4) * decks;
+        }
+        return rankCounts;
+    }
+
+    /**
+     * Количество карт ранга в упакованном составе.
+     */
+    private static long count(long composition, int rank) {
+        return (composition >>> SHIFTS[rank]) & MAX_COUNTS[rank];
+    }
+
+    /**
+     * Вероятность вытянуть карту ранга из состава размера size.
+     */
+    private static double probability(long composition, int size, int rank) {
+        return size == 0 ? 0 : (double) count(composition, rank) / size;
+    }
+
+    /**
+     * Состав без одной карты ранга (карта должна быть в составе).
+     */
+    private static long take(long composition, int rank) {
+        if (rank < 1 || rank > RANKS) {
+            throw new IllegalArgumentException("Rank not in [1..10]");
+        }
+        if (count(composition, rank) == 0) {
+            throw new IllegalArgumentException("No cards of rank " + rank + " left");
+        }
+        return composition - UNITS[rank];
+    }
+
+    /**
+     * Добавление карты к руке, упакованной как в Simulator: младшие 8 бит -
+     * сумма очков без тузов, старшие - количество тузов.
+     */
+    private static int addCard(int hand, int rank) {
+        return hand + (rank == 1 ? ACE : rank);
+    }
+
+    /**
+     * Сумма очков упакованной руки.
+     */
+    private static int score(int hand) {
+        return AbstractPlayer.score(hand & (ACE - 1), hand >>> ACE_SHIFT);
+    }
+}
@@ -0,0 +1,176 @@
+package ru.nsu.lyskov;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Вывод текста игры в поток Appendable (StringBuilder, Writer, PrintStream...)
+ * без промежуточных строк. Локализованные сообщения и названия всех 52 карт
+ * (по коду карты, см. Card.codeOf) читаются из ResourceBundle один раз
+ * при создании. Для безголового режима есть "пустой" вывод SILENT: с ним
+ * методы возвращаются сразу, ничего не форматируя.
+ */
+public class GameRenderer {
+    /**
+     * Поток, отбрасывающий весь вывод.
+     */
+    public static final Appendable SILENT = new Appendable() {
+        @Override
+        public Appendable append(CharSequence csq) {
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            return this;
+        }
+    };
+
+    private static final String[] VALUE_KEYS = {
+        "Ace", "Two", "Three", "Four", "Five", "Six", "Seven",
+        "Eight", "Nine", "Ten", "Jack", "King", "Queen"
+    };
+    private static final String[] SUIT_KEYS = {"Clubs", "Diamonds", "Hearts", "Spades"};
+
+    private final Appendable out;
+    private final boolean enabled;
+    private final Map<String, String> messages = new HashMap<>();
+    private final String[] cardNames = new String[Card.CODES];
+    private final String closedCard;
+
+    /**
+     * Конструктор вывода.
+     *
+     * @param locale Локаль сообщений.
+     * @param out    Поток, в который пишется текст игры, или SILENT.
+     */
+    public GameRenderer(Locale locale, Appendable out) {
+        this.out = out;
+        enabled = out != SILENT;
+        ResourceBundle resourceBundle = ResourceBundle.getBundle("localization", locale);
+        for (String key : resourceBundle.keySet()) {
+            messages.put(key, resourceBundle.getString(key));
+        }
+        for (int code = 0; code < Card.CODES; code++) {
+            cardNames[code] = localized(VALUE_KEYS[Card.rankOf(code) - 1]) + " "
+                    + localized(SUIT_KEYS[Card.suitOf(code) - 1]) + " (";
+        }
+        closedCard = localized("ClosedCard");
+    }
+
+    /**
+     * Признак того, что вывод не отбрасывается.
+     *
+     * @return false для вывода SILENT.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Вывод локализованного сообщения.
+     *
+     * @param key Ключ сообщения в файле локализации.
+     * @return Этот же объект.
+     */
+    public GameRenderer message(String key) {
+        return text(localized(key));
+    }
+
+    /**
+     * Вывод произвольного текста.
+     *
+     * @param text Текст.
+     * @return Этот же объект.
+     */
+    public GameRenderer text(CharSequence text) {
+        if (enabled) {
+            try {
+                out.append(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Вывод числа.
+     *
+     * @param number Число.
+     * @return Этот же объект.
+     */
+    public GameRenderer number(int number) {
+        return enabled ? text(Integer.toString(number)) : this;
+    }
+
+    /**
+     * Вывод информации о карте руки игрока: название и очки, которые карта
+     * приносит игроку, либо обозначение закрытой карты.
+     *
+     * @param player Игрок.
+     * @param index  Номер карты в руке.
+     * @return Этот же объект.
+     */
+    public GameRenderer card(AbstractPlayer player, int index) {
+        if (!enabled) {
+            return this;
+        }
+        Card card = player.getCards().get(index);
+        if (!card.isOpen()) {
+            return text(closedCard);
+        }
+        return text(cardNames[card.getCode()]).number(player.getCardScore(index)).text(")");
+    }
+
+    /**
+     * Вывод доступной пользователю информации о руке игрока: карты в
+     * квадратных скобках и, если закрытых карт нет, сумма очков.
+     *
+     * @param player Игрок.
+     * @return Этот же объект.
+     */
+    public GameRenderer hand(AbstractPlayer player) {
+        if (!enabled) {
+            return this;
+        }
+        boolean hasClosedCard = false;
+        text("[");
+        List<Card> hand = player.getCards();
+        for (int i = 0; i < hand.size(); i++) {
+            if (i > 0) {
+                text(", ");
+            }
+            card(player, i);
+            if (!hand.get(i).isOpen()) {
+                hasClosedCard = true;
+            }
+        }
+        text("]");
+        if (!hasClosedCard) {
+            text(" -> ").number(player.getScore());
+        }
+        return this;
+    }
+
+    /**
+     * Локализованное сообщение по ключу.
+     */
+    private String localized(String key) {
+        String message = messages.get(key);
+        if (message == null) {
+            throw new RuntimeException("No localized message for key " + key);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.nsu.lyskov;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Компактный двоичный снимок состояния блэкджека. Формат:
+ * байт версии, затем varint-числа (см. VarInts) номера раунда и счёта,
+ * шуз (размер, курсор, позиция подрезной карты и по байту на код карты)
+ * и руки пользователя и дилера (количество карт и по байту на карту:
+ * код карты, бит 6 - карта открыта). Снимок партии на одну колоду
+ * занимает около 70 байт.
+ */
+public final class GameSnapshot {
+    private static final int VERSION = 1;
+
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private GameSnapshot() {
+    }
+
+    /**
+     * Снимок состояния игры.
+     *
+     * @param game Игра.
+     * @return Байты снимка.
+     */
+    public static byte[] save(Blackjack game) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(VERSION);
+        game.writeState(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Восстановление игры из снимка. Игра продолжается с того же места:
+     * следующий вызов gameInput() - очередной ход пользователя.
+     *
+     * @param snapshot   Байты снимка.
+     * @param localeName Название локали.
+     * @param output     Поток для текста игры (GameRenderer.SILENT - без вывода).
+     * @return Восстановленная игра.
+     */
+    public static Blackjack restore(byte[] snapshot, String localeName, Appendable output) {
+        Blackjack game = new Blackjack(localeName, output);
+        ByteBuffer in = ByteBuffer.wrap(snapshot);
+        try {
+            if (in.get() != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version");
+            }
+            game.readState(in);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Snapshot is truncated", e);
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected bytes after snapshot");
+        }
+        return game;
+    }
+}
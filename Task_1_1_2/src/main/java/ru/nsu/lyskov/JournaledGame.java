@@ -0,0 +1,67 @@
+package ru.nsu.lyskov;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Игра блэкджек, все действия которой записываются в журнал MoveJournal.
+ * После инициализации игры в журнал пишется её снимок, затем - каждый
+ * допустимый ход пользователя и порядок карт после каждой тасовки шуза.
+ * По журналу Replayer восстанавливает партию без генератора случайных чисел.
+ */
+public class JournaledGame implements GameInterface {
+    private final Blackjack game;
+    private final MoveJournal journal;
+
+    /**
+     * Конструктор.
+     *
+     * @param game    Ещё не инициализированная игра.
+     * @param journal Журнал, в который записывается партия.
+     */
+    public JournaledGame(Blackjack game, MoveJournal journal) {
+        this.game = game;
+        this.journal = journal;
+    }
+
+    /**
+     * Инициализация игры и запись её снимка в журнал.
+     */
+    @Override
+    public void gameInit() {
+        game.gameInit();
+        try {
+            journal.appendSnapshot(GameSnapshot.save(game));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        game.getDeck().setShuffleListener(order -> {
+            try {
+                journal.appendShuffle(order);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Ход пользователя. Тасовки во время хода записываются раньше самого хода,
+     * недопустимый ввод в журнал не попадает.
+     *
+     * @param input Строка с выбором игрока.
+     */
+    @Override
+    public void gameInput(String input) {
+        game.gameInput(input);
+        try {
+            journal.appendMove(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void gameOutput() {
+        game.gameOutput();
+    }
+}
@@ -0,0 +1,290 @@
+package ru.nsu.lyskov;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный тест сервера столов через петлевой интерфейс: tables клиентов
+ * одновременно играют по moves случайных ходов, каждый клиент ждёт ответа на ход
+ * перед следующим (замкнутый цикл). Измеряются пропускная способность
+ * (ходов в секунду, в том числе на поток сервера) и задержки ходов
+ * от отправки команды до получения конца блока ответа.
+ * Клиенты распределены между несколькими потоками, каждый ведёт свою часть
+ * неблокирующих соединений через Selector. Ошибка любого клиента завершает тест.
+ */
+public class LoadGenerator {
+    /**
+     * Время без ответов сервера, после которого клиенты считаются зависшими.
+     */
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final byte[][] COMMANDS = {"0\n".getBytes(StandardCharsets.UTF_8),
+        "1\n".getBytes(StandardCharsets.UTF_8)};
+
+    private final int port;
+    private final int tables;
+    private final int moves;
+    private final int threads;
+
+    /**
+     * Конструктор нагрузочного теста.
+     *
+     * @param port   Порт TableSocketServer на 127.0.0.1.
+     * @param tables Количество одновременных столов (клиентов).
+     * @param moves  Количество ходов каждого клиента.
+     */
+    public LoadGenerator(int port, int tables, int moves) {
+        this.port = port;
+        this.tables = tables;
+        this.moves = moves;
+        this.threads = Math.max(1, Math.min(tables,
+                Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Запуск теста.
+     *
+     * @return Задержки всех ходов в наносекундах (по возрастанию) и общее время.
+     * @throws IOException          Ошибка клиента (в причине - исключение клиента).
+     * @throws InterruptedException Ожидание клиентов прервано.
+     */
+    public Result run() throws IOException, InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<long[]> clients = new ExecutorCompletionService<>(executor);
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                int first = thread;
+                clients.submit(() -> play(first, ready, go));
+            }
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            List<long[]> latencies = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                try {
+                    latencies.add(clients.take().get());
+                } catch (ExecutionException e) {
+                    throw new IOException("Load client failed", e.getCause());
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(all);
+            return new Result(all, elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Игра клиентов first, first + threads, first + 2 * threads, ... в одном потоке.
+     * Сначала все клиенты подключаются и получают приветствие, затем поток
+     * отмечается в ready и ждёт общего старта go.
+     */
+    private long[] play(int first, CountDownLatch ready, CountDownLatch go)
+            throws IOException, InterruptedException {
+        List<Client> clients = new ArrayList<>();
+        try (Selector selector = Selector.open()) {
+            try {
+                for (int table = first; table < tables; table += threads) {
+                    Client client = new Client(table, selector);
+                    clients.add(client);
+                    client.send("en\n".getBytes(StandardCharsets.UTF_8));
+                }
+                await(selector, clients.size());
+            } finally {
+                ready.countDown();
+            }
+            go.await();
+            long[] latencies = new long[clients.size() * moves];
+            if (moves == 0) {
+                return latencies;
+            }
+            for (int i = 0; i < clients.size(); i++) {
+                clients.get(i).latencies = latencies;
+                clients.get(i).offset = i * moves;
+                clients.get(i).nextMove();
+            }
+            await(selector, clients.size());
+            return latencies;
+        } finally {
+            for (Client client : clients) {
+                client.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Обработка ответов, пока count клиентов не получат последний ожидаемый блок.
+     */
+    private static void await(Selector selector, int count)
+            throws IOException, InterruptedException {
+        int received = 0;
+        while (received < count) {
+            if (selector.select(TIMEOUT_MILLIS) == 0) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                throw new IOException("No response from server");
+            }
+            for (SelectionKey key : selector.selectedKeys()) {
+                received += ((Client) key.attachment()).read();
+            }
+            selector.selectedKeys().clear();
+        }
+    }
+
+    /**
+     * Один клиент: соединение, генератор ходов и счётчик сыгранных ходов.
+     */
+    private final class Client {
+        private final int table;
+        private final SocketChannel channel;
+        private final SplittableRandom random;
+        private final ByteBuffer input = ByteBuffer.allocate(8192);
+        private long[] latencies;
+        private int offset;
+        private int move = 0;
+        private long start;
+
+        Client(int table, Selector selector) throws IOException {
+            this.table = table;
+            this.random = new SplittableRandom(table);
+            channel = SocketChannel.open(new InetSocketAddress(
+                    InetAddress.getLoopbackAddress(), port));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, this);
+        }
+
+        /**
+         * Отправка команды. Клиент пишет только после полного ответа,
+         * поэтому несколько байт помещаются в буфер сокета целиком.
+         */
+        void send(byte[] command) throws IOException {
+            if (channel.write(ByteBuffer.wrap(command)) != command.length) {
+                throw new IOException("Client " + table + " could not send a command");
+            }
+        }
+
+        /**
+         * Отправка следующего хода.
+         */
+        void nextMove() throws IOException {
+            start = System.nanoTime();
+            send(COMMANDS[random.nextInt(2)]);
+        }
+
+        /**
+         * Чтение доступных данных. Во время игры на полученный ответ сразу
+         * отправляется следующий ход.
+         *
+         * @return 1, если получен последний ожидаемый клиентом блок, иначе 0.
+         */
+        int read() throws IOException {
+            input.clear();
+            if (channel.read(input) < 0) {
+                throw new IOException("Client " + table + ": connection closed");
+            }
+            int blocks = 0;
+            for (int i = 0; i < input.position(); i++) {
+                if (input.get(i) == TableSocketServer.END_OF_BLOCK) {
+                    blocks++;
+                }
+            }
+            if (blocks > 1 || blocks == 1 && input.get(input.position() - 1)
+                    != TableSocketServer.END_OF_BLOCK) {
+                throw new IOException("Client " + table + ": unexpected block");
+            }
+            if (blocks == 1 && latencies != null) {
+                latencies[offset + move] = System.nanoTime() - start;
+                move++;
+                if (move < moves) {
+                    nextMove();
+                    return 0;
+                }
+            }
+            return blocks;
+        }
+    }
+
+    /**
+     * Результат нагрузочного теста.
+     */
+    public static class Result {
+        private final long[] latencies;
+        private final long elapsedNanos;
+
+        Result(long[] latencies, long elapsedNanos) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getMoves() {
+            return latencies.length;
+        }
+
+        public double getMovesPerSecond() {
+            return latencies.length * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Квантиль задержки хода.
+         *
+         * @param quantile Квантиль от 0 до 1.
+         * @return Задержка в наносекундах.
+         */
+        public long getLatency(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+    }
+
+    /**
+     * Запуск сервера и нагрузки в одном процессе.
+     *
+     * @param args Количество столов, ходов на стол и потоков сервера
+     *             (по умолчанию 1000, 200 и число ядер).
+     * @throws Exception Ошибка сети или прерывание.
+     */
+    public static void main(String[] args) throws Exception {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        try (TableServer server = new TableServer(threads, 16);
+             TableSocketServer front = new TableSocketServer(server, 0)) {
+            Result result = new LoadGenerator(front.getPort(), tables, moves).run();
+            System.out.printf("tables=%d threads=%d moves=%d%n", tables, threads,
+                    result.getMoves());
+            System.out.printf("throughput=%.0f moves/s (%.0f per server thread)%n",
+                    result.getMovesPerSecond(), result.getMovesPerSecond() / threads);
+            System.out.printf("latency p50=%.3f ms p99=%.3f ms max=%.3f ms%n",
+                    result.getLatency(0.5) / 1e6, result.getLatency(0.99) / 1e6,
+                    result.getLatency(1.0) / 1e6);
+        }
+    }
+}
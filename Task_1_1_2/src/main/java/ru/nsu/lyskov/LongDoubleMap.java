@@ -0,0 +1,113 @@
+package ru.nsu.lyskov;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с открытой адресацией (линейное пробирование) из неотрицательных
+ * long в double на двух примитивных массивах, без упаковки ключей и значений.
+ * Используется как кэш вычисленных состояний в EvSolver.
+ */
+final class LongDoubleMap {
+    private static final long EMPTY = -1;
+
+    private long[] keys;
+    private double[] values;
+    private int mask;
+    private int size = 0;
+
+    /**
+     * Конструктор пустой таблицы.
+     *
+     * @param expectedSize Ожидаемое количество ключей.
+     */
+    LongDoubleMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Значение по ключу.
+     *
+     * @param key Неотрицательный ключ.
+     * @return Значение или NaN, если ключа нет в таблице.
+     */
+    double get(long key) {
+        long[] keys = this.keys;
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == EMPTY) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Запись значения по ключу.
+     *
+     * @param key   Неотрицательный ключ.
+     * @param value Значение.
+     */
+    void put(long key, double value) {
+        int i = index(key);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            if (++size * 2 > keys.length) {
+                values[i] = value;
+                rehash();
+                return;
+            }
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Количество ключей.
+     *
+     * @return Размер таблицы.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Номер ячейки для ключа (перемешивание битов умножением Фибоначчи).
+     */
+    private int index(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * Выделение пустых массивов заданной ёмкости (степени двойки).
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Увеличение таблицы вдвое с перераспределением ключей.
+     */
+    private void rehash() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = index(oldKeys[j]);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
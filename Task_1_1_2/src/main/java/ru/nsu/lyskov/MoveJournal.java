@@ -0,0 +1,130 @@
+package ru.nsu.lyskov;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Журнал партии блэкджека, дописываемый через отображение файла в память
+ * (FileChannel.map) окнами по 1 МиБ. Журнал - последовательность записей
+ * "тег, varint-длина, данные":
+ * SNAPSHOT - начальный снимок игры (GameSnapshot),
+ * SHUFFLE - порядок несданных карт после тасовки во время следующего хода,
+ * MOVE - ход пользователя (строка в UTF-8).
+ * Нулевой тег означает конец журнала: незаписанная часть отображённого окна
+ * заполнена нулями, а тег записи пишется последним, после длины и данных,
+ * поэтому после аварийного завершения процесса недописанная запись читается
+ * как конец журнала, и журнал воспроизводится до последней полной записи.
+ * При закрытии файл обрезается до фактической длины. Если система не позволяет
+ * обрезать файл, пока он отображён в память (Windows: отображение снимается
+ * только сборщиком мусора), файл остаётся с нулевым хвостом, который при
+ * чтении тоже означает конец журнала.
+ */
+public class MoveJournal implements AutoCloseable {
+    static final byte END = 0;
+    static final byte SNAPSHOT = 'B';
+    static final byte SHUFFLE = 'S';
+    static final byte MOVE = 'M';
+
+    /**
+     * Размер окна отображения в байтах.
+     */
+    private static final int WINDOW = 1 << 20;
+
+    private final FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+
+    /**
+     * Создание журнала (существующий файл перезаписывается).
+     *
+     * @param file Файл журнала.
+     * @throws IOException Ошибка открытия или отображения файла.
+     */
+    public MoveJournal(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW);
+    }
+
+    /**
+     * Запись начального снимка игры.
+     *
+     * @param snapshot Байты снимка.
+     * @throws IOException Ошибка отображения файла.
+     */
+    void appendSnapshot(byte[] snapshot) throws IOException {
+        append(SNAPSHOT, snapshot);
+    }
+
+    /**
+     * Запись порядка несданных карт после тасовки.
+     *
+     * @param order Коды карт в порядке сдачи.
+     * @throws IOException Ошибка отображения файла.
+     */
+    void appendShuffle(byte[] order) throws IOException {
+        append(SHUFFLE, order);
+    }
+
+    /**
+     * Запись хода пользователя.
+     *
+     * @param move Строка хода.
+     * @throws IOException Ошибка отображения файла.
+     */
+    void appendMove(String move) throws IOException {
+        append(MOVE, move.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Количество записанных байт журнала.
+     *
+     * @return Длина журнала.
+     */
+    public long length() {
+        return windowStart + window.position();
+    }
+
+    /**
+     * Обрезка файла до фактической длины и закрытие.
+     *
+     * @throws IOException Ошибка записи файла.
+     */
+    @Override
+    public void close() throws IOException {
+        long length = length();
+        window.force();
+        window = null;
+        try {
+            channel.truncate(length);
+        } catch (IOException e) {
+            // Файл ещё отображён в память: хвост из нулей остаётся (см. описание класса).
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Запись одной записи; если она не помещается в текущее окно,
+     * отображается следующее, начиная с конца журнала. Тег пишется последним:
+     * до этого на его месте ноль, и запись не видна читателю.
+     */
+    private void append(byte tag, byte[] payload) throws IOException {
+        int recordLength = 1 + VarInts.size(payload.length) + payload.length;
+        if (window.remaining() < recordLength) {
+            windowStart += window.position();
+            window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart,
+                    Math.max(WINDOW, recordLength));
+        }
+        int start = window.position();
+        window.position(start + 1);
+        VarInts.write(window, payload.length);
+        window.put(payload);
+        window.put(start, tag);
+    }
+}
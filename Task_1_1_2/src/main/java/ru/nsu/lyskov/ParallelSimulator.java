@@ -0,0 +1,123 @@
+package ru.nsu.lyskov;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Параллельная симуляция блэкджека на ForkJoinPool. Раунды делятся на пакеты
+ * фиксированного размера; каждый пакет играется на собственном шузе со своим
+ * генератором SplittableRandom, зерно которого заранее выводится из главного
+ * зерна. Разбиение на пакеты и их зёрна не зависят от числа потоков, а итоги
+ * пакетов - целые числа, складываемые в LongAdder, поэтому при одинаковом
+ * зерне результат одинаков при любой параллельности пула.
+ */
+public class ParallelSimulator {
+    /**
+     * Количество раундов в одном пакете.
+     */
+    static final int BATCH_ROUNDS = 1 << 16;
+
+    private final int decks;
+    private final double penetration;
+    private final ForkJoinPool pool;
+
+    /**
+     * Конструктор симуляции в общем пуле ForkJoinPool.
+     *
+     * @param decks       Количество колод в шузе.
+     * @param penetration Доля шуза, которая сдаётся до подрезной карты, из (0..1].
+     */
+    public ParallelSimulator(int decks, double penetration) {
+        this(decks, penetration, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Конструктор симуляции в заданном пуле.
+     *
+     * @param decks       Количество колод в шузе.
+     * @param penetration Доля шуза, которая сдаётся до подрезной карты, из (0..1].
+     * @param pool        Пул потоков.
+     */
+    public ParallelSimulator(int decks, double penetration, ForkJoinPool pool) {
+        Deck.checkShoe(decks, penetration);
+        this.decks = decks;
+        this.penetration = penetration;
+        this.pool = pool;
+    }
+
+    /**
+     * Симуляция заданного числа раундов.
+     *
+     * @param strategy Стратегия игрока; вызывается из нескольких потоков одновременно,
+     *                 поэтому не должна иметь изменяемого состояния.
+     * @param rounds   Количество раундов.
+     * @param seed     Главное зерно.
+     * @return Итоги симуляции.
+     */
+    public SimulationResult run(Strategy strategy, long rounds, long seed) {
+        if (rounds < 0) {
+            throw new IllegalArgumentException("Number of rounds must not be negative");
+        }
+        long batches = (rounds + BATCH_ROUNDS - 1) / BATCH_ROUNDS;
+        if (batches > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many rounds");
+        }
+        long[] seeds = new long[(int) batches];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = master.nextLong();
+        }
+        LongAdder wins = new LongAdder();
+        LongAdder losses = new LongAdder();
+        if (seeds.length == 0) {
+            return new SimulationResult(0, 0, 0);
+        }
+        pool.invoke(new BatchTask(strategy, rounds, seeds, 0, seeds.length, wins, losses));
+        long winCount = wins.sum();
+        long lossCount = losses.sum();
+        return new SimulationResult(winCount, lossCount, rounds - winCount - lossCount);
+    }
+
+    /**
+     * Задача, играющая пакеты [from, to): диапазон делится пополам, пока
+     * в нём больше одного пакета.
+     */
+    @SuppressWarnings("serial")
+    private class BatchTask extends RecursiveAction {
+        private final Strategy strategy;
+        private final long rounds;
+        private final long[] seeds;
+        private final int from;
+        private final int to;
+        private final LongAdder wins;
+        private final LongAdder losses;
+
+        BatchTask(Strategy strategy, long rounds, long[] seeds, int from, int to,
+                  LongAdder wins, LongAdder losses) {
+            this.strategy = strategy;
+            this.rounds = rounds;
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+            this.wins = wins;
+            this.losses = losses;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(strategy, rounds, seeds, from, middle, wins, losses),
+                        new BatchTask(strategy, rounds, seeds, middle, to, wins, losses));
+                return;
+            }
+            long batchRounds = Math.min(BATCH_ROUNDS, rounds - (long) from * BATCH_ROUNDS);
+            Deck deck = new Deck(decks, penetration, new SplittableRandom(seeds[from]));
+            SimulationResult result = new Simulator(deck).run(strategy, batchRounds);
+            wins.add(result.getWins());
+            losses.add(result.getLosses());
+        }
+    }
+}
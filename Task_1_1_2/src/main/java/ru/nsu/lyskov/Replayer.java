@@ -0,0 +1,78 @@
+package ru.nsu.lyskov;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Воспроизведение партии по журналу MoveJournal. Игра восстанавливается из
+ * начального снимка, затем к ней применяются записанные ходы; перед ходом,
+ * во время которого шуз тасовался, колоде передаётся записанный порядок карт,
+ * поэтому результат не зависит от генератора случайных чисел.
+ * Без вывода текста (GameRenderer.SILENT) воспроизведение сводится к
+ * операциям над кодами карт и счётчиками.
+ */
+public final class Replayer {
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private Replayer() {
+    }
+
+    /**
+     * Воспроизведение всей партии без вывода текста.
+     *
+     * @param journal Файл журнала.
+     * @return Игра в состоянии после последнего записанного хода.
+     * @throws IOException Ошибка чтения файла.
+     */
+    public static Blackjack replay(Path journal) throws IOException {
+        return replay(journal, Integer.MAX_VALUE, "en", GameRenderer.SILENT);
+    }
+
+    /**
+     * Воспроизведение партии до начала раунда round.
+     *
+     * @param journal    Файл журнала.
+     * @param round      Номер раунда, перед первым ходом которого нужно остановиться.
+     * @param localeName Название локали.
+     * @param output     Поток для текста воспроизводимых ходов.
+     * @return Игра в начале раунда round или после последнего хода, если
+     *         журнал закончился раньше.
+     * @throws IOException Ошибка чтения файла.
+     */
+    public static Blackjack replay(Path journal, int round, String localeName,
+                                   Appendable output) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (!in.hasRemaining() || in.get() != MoveJournal.SNAPSHOT) {
+            throw new IllegalArgumentException("Journal does not start with a snapshot");
+        }
+        byte[] snapshot = new byte[VarInts.read(in)];
+        in.get(snapshot);
+        Blackjack game = GameSnapshot.restore(snapshot, localeName, output);
+        Deck deck = game.getDeck();
+
+        while (in.hasRemaining() && game.getRound() < round) {
+            byte tag = in.get();
+            if (tag == MoveJournal.END) {
+                break;
+            }
+            byte[] payload = new byte[VarInts.read(in)];
+            in.get(payload);
+            if (tag == MoveJournal.SHUFFLE) {
+                deck.setNextOrder(payload);
+            } else if (tag == MoveJournal.MOVE) {
+                game.gameInput(new String(payload, StandardCharsets.UTF_8));
+            } else {
+                throw new IllegalArgumentException("Unknown journal record " + tag);
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.nsu.lyskov;
+
+/**
+ * Итоги серии раундов симуляции: количество побед, поражений и ничьих игрока
+ * и производные величины. Ставка в каждом раунде одна и та же и выплачивается
+ * один к одному (в игре нет особой выплаты за блэкджек), поэтому результат
+ * раунда для игрока равен +1, 0 или -1.
+ */
+public class SimulationResult {
+    /**
+     * Квантиль нормального распределения для двустороннего 95% интервала.
+     */
+    private static final double Z_95 = 1.959963984540054;
+
+    private final long wins;
+    private final long losses;
+    private final long pushes;
+
+    /**
+     * Конструктор итогов.
+     *
+     * @param wins   Количество побед игрока.
+     * @param losses Количество поражений игрока.
+     * @param pushes Количество ничьих.
+     */
+    public SimulationResult(long wins, long losses, long pushes) {
+        if (wins < 0 || losses < 0 || pushes < 0) {
+            throw new IllegalArgumentException("Counts must not be negative");
+        }
+        this.wins = wins;
+        this.losses = losses;
+        this.pushes = pushes;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public long getPushes() {
+        return pushes;
+    }
+
+    public long getRounds() {
+        return wins + losses + pushes;
+    }
+
+    public double getWinRate() {
+        return (double) wins / getRounds();
+    }
+
+    public double getLossRate() {
+        return (double) losses / getRounds();
+    }
+
+    public double getPushRate() {
+        return (double) pushes / getRounds();
+    }
+
+    /**
+     * Преимущество казино: средний проигрыш игрока на единицу ставки.
+     *
+     * @return (losses - wins) / rounds.
+     */
+    public double getHouseEdge() {
+        return (double) (losses - wins) / getRounds();
+    }
+
+    /**
+     * Полуширина 95% доверительного интервала для преимущества казино
+     * (нормальное приближение: 1.96 * стандартное отклонение результата раунда
+     * / корень из числа раундов).
+     *
+     * @return Полуширина интервала.
+     */
+    public double getHouseEdgeError() {
+        double rounds = getRounds();
+        double mean = getHouseEdge();
+        double variance = (wins + losses) / rounds - mean * mean;
+        return Z_95 * Math.sqrt(Math.max(variance, 0) / rounds);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rounds=%d win=%.4f loss=%.4f push=%.4f houseEdge=%.4f+-%.4f",
+                getRounds(), getWinRate(), getLossRate(), getPushRate(),
+                getHouseEdge(), getHouseEdgeError());
+    }
+}
@@ -0,0 +1,112 @@
+package ru.nsu.lyskov;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Безголовая симуляция раундов блэкджека для оценки стратегий: без объектов
+ * карт, локализации и текстового вывода, карты берутся кодами из шуза (Deck).
+ * Правила в точности повторяют Blackjack:
+ * игрок берёт карты по стратегии; набрав ровно 21, он сразу выигрывает,
+ * набрав больше 21 - проигрывает. Если игрок остановился на 21, он выигрывает,
+ * а при 21 у дилера (после открытия закрытой карты) раунд заканчивается вничью.
+ * Иначе дилер открывает карту и берёт карты, пока у него меньше 17: 21 у дилера -
+ * поражение игрока, больше 21 - победа, иначе побеждает большая сумма, равные
+ * суммы - ничья.
+ */
+public class Simulator {
+    private static final int ACE_SHIFT = 8;
+    private static final int ACE = 1 << ACE_SHIFT;
+
+    private final Deck deck;
+    private final IntSupplier cards;
+
+    /**
+     * Конструктор симуляции на заданном шузе. Шуз перетасовывается перед раундом,
+     * если сдача дошла до подрезной карты.
+     *
+     * @param deck Шуз, из которого сдаются карты.
+     */
+    public Simulator(Deck deck) {
+        this.deck = deck;
+        cards = deck::drawCode;
+    }
+
+    /**
+     * Симуляция заданного числа раундов.
+     *
+     * @param strategy Стратегия игрока.
+     * @param rounds   Количество раундов.
+     * @return Итоги симуляции.
+     */
+    public SimulationResult run(Strategy strategy, long rounds) {
+        long wins = 0;
+        long losses = 0;
+        for (long i = 0; i < rounds; i++) {
+            if (deck.isCutCardReached()) {
+                deck.reshuffle();
+            }
+            int outcome = playRound(strategy, cards);
+            if (outcome > 0) {
+                wins++;
+            } else if (outcome < 0) {
+                losses++;
+            }
+        }
+        return new SimulationResult(wins, losses, rounds - wins - losses);
+    }
+
+    /**
+     * Один раунд. Порядок раздачи как в Blackjack: игрок, дилер (открытая),
+     * игрок, дилер (закрытая).
+     *
+     * @param strategy Стратегия игрока.
+     * @param cards    Источник кодов карт.
+     * @return Результат для игрока: 1 - победа, -1 - поражение, 0 - ничья.
+     */
+    static int playRound(Strategy strategy, IntSupplier cards) {
+        int player = addCard(0, cards.getAsInt());
+        int dealerUpCard = cards.getAsInt();
+        int dealer = addCard(0, dealerUpCard);
+        player = addCard(player, cards.getAsInt());
+        dealer = addCard(dealer, cards.getAsInt());
+
+        int dealerUpScore = Card.scoreOf(dealerUpCard);
+        int playerScore = score(player);
+        while (strategy.hit(playerScore, dealerUpScore)) {
+            player = addCard(player, cards.getAsInt());
+            playerScore = score(player);
+            if (playerScore >= 21) {
+                return playerScore == 21 ? 1 : -1;
+            }
+        }
+
+        int dealerScore = score(dealer);
+        if (playerScore == 21) {
+            return dealerScore == 21 ? 0 : 1;
+        }
+        while (dealerScore < 17) {
+            dealer = addCard(dealer, cards.getAsInt());
+            dealerScore = score(dealer);
+        }
+        if (dealerScore >= 21) {
+            return dealerScore == 21 ? -1 : 1;
+        }
+        return Integer.compare(playerScore, dealerScore);
+    }
+
+    /**
+     * Добавление карты к руке. Рука упакована в int: младшие 8 бит - сумма очков
+     * карт без тузов, старшие - количество тузов.
+     */
+    private static int addCard(int hand, int code) {
+        int cardScore = Card.scoreOf(code);
+        return hand + (cardScore == 1 ? ACE : cardScore);
+    }
+
+    /**
+     * Сумма очков упакованной руки.
+     */
+    private static int score(int hand) {
+        return AbstractPlayer.score(hand & (ACE - 1), hand >>> ACE_SHIFT);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.nsu.lyskov;
+
+/**
+ * Стратегия игрока для безголовой симуляции (Simulator): решение, брать ли
+ * ещё одну карту, по текущей сумме очков игрока и открытой карте дилера.
+ */
+@FunctionalInterface
+public interface Strategy {
+    /**
+     * Решение игрока в его ход.
+     *
+     * @param playerScore   Сумма очков игрока (как AbstractPlayer.getScore()).
+     * @param dealerUpScore Очки открытой карты дилера (туз - 1, картинки - 10).
+     * @return true, чтобы взять карту, false, чтобы закончить ход.
+     */
+    boolean hit(int playerScore, int dealerUpScore);
+
+    /**
+     * Стратегия "брать, пока сумма меньше порога" без учёта карты дилера.
+     *
+     * @param threshold Сумма, на которой игрок останавливается.
+     * @return Стратегия.
+     */
+    static Strategy standOn(int threshold) {
+        return (playerScore, dealerUpScore) -> playerScore < threshold;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.nsu.lyskov;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервер множества столов блэкджека: столы (TableSession) обрабатываются
+ * небольшим пулом потоков (по умолчанию по одному на ядро), а не потоком на стол,
+ * поэтому тысячи одновременных столов не требуют тысяч потоков.
+ */
+public class TableServer implements AutoCloseable {
+    private final ExecutorService executor;
+    private final int inboxCapacity;
+    private final AtomicInteger tables = new AtomicInteger();
+
+    /**
+     * Конструктор сервера с потоком на каждое ядро.
+     *
+     * @param inboxCapacity Вместимость очереди команд каждого стола.
+     */
+    public TableServer(int inboxCapacity) {
+        this(Runtime.getRuntime().availableProcessors(), inboxCapacity);
+    }
+
+    /**
+     * Конструктор сервера.
+     *
+     * @param threads       Количество потоков пула.
+     * @param inboxCapacity Вместимость очереди команд каждого стола.
+     */
+    public TableServer(int threads, int inboxCapacity) {
+        if (threads < 1 || inboxCapacity < 1) {
+            throw new IllegalArgumentException("Threads and inbox capacity must be positive");
+        }
+        executor = Executors.newFixedThreadPool(threads);
+        this.inboxCapacity = inboxCapacity;
+    }
+
+    /**
+     * Открытие нового стола с игрой Blackjack.
+     *
+     * @param localeName Название локали игры.
+     * @param sink       Получатель текста игры; вызывается из потоков пула
+     *                   и должен скопировать текст, если хранит его.
+     * @return Стол.
+     */
+    public TableSession open(String localeName, TableSession.Sink sink) {
+        return new TableSession(tables.getAndIncrement(),
+                output -> new Blackjack(localeName, output), inboxCapacity, executor, sink);
+    }
+
+    /**
+     * Количество открытых за время работы столов.
+     *
+     * @return Число столов.
+     */
+    public int getTableCount() {
+        return tables.get();
+    }
+
+    /**
+     * Остановка пула: уже запущенные обработки столов дорабатываются,
+     * команды, до которых очередь не дошла, отбрасываются.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.nsu.lyskov;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Игровой стол на сервере (TableServer): игра GameInterface, ограниченная очередь
+ * входящих команд и буфер вывода. Стол не занимает отдельный поток: когда в очереди
+ * появляются команды, он ставится в пул потоков и обрабатывает за раз до BATCH_SIZE
+ * команд, после чего отдаёт весь накопленный текст получателю одним блоком.
+ * Одновременно стол обрабатывается не более чем одним потоком, поэтому игре
+ * синхронизация не нужна.
+ * Получатель может быть не готов принять вывод (Sink.isReady): тогда стол не берёт
+ * команды из очереди, пока его не возобновят (resume), и поток пула не блокируется.
+ */
+public class TableSession {
+    /**
+     * Наибольшее количество команд, обрабатываемых за один запуск стола.
+     */
+    static final int BATCH_SIZE = 64;
+
+    private final int id;
+    private final GameInterface game;
+    private final StringBuilder output = new StringBuilder();
+    private final BlockingQueue<String> inbox;
+    private final Executor executor;
+    private final Sink sink;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private boolean started = false;
+
+    /**
+     * Конструктор стола. Игра инициализируется (gameInit) при первом запуске стола в пуле.
+     *
+     * @param id            Номер стола.
+     * @param gameFactory   Создание игры, пишущей текст в переданный поток.
+     * @param inboxCapacity Вместимость очереди команд.
+     * @param executor      Пул потоков, в котором обрабатываются столы.
+     * @param sink          Получатель текста игры; вызывается из потоков пула.
+     */
+    TableSession(int id, Function<Appendable, GameInterface> gameFactory, int inboxCapacity,
+                 Executor executor, Sink sink) {
+        this.id = id;
+        this.game = gameFactory.apply(output);
+        this.inbox = new ArrayBlockingQueue<>(inboxCapacity);
+        this.executor = executor;
+        this.sink = sink;
+        schedule();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Добавление команды без ожидания.
+     *
+     * @param command Строка, передаваемая в gameInput.
+     * @return false, если очередь стола заполнена и команда не принята.
+     */
+    public boolean offer(String command) {
+        if (!inbox.offer(command)) {
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Добавление команды с ожиданием места в очереди.
+     *
+     * @param command Строка, передаваемая в gameInput.
+     * @throws InterruptedException Ожидание прервано.
+     */
+    public void put(String command) throws InterruptedException {
+        inbox.put(command);
+        schedule();
+    }
+
+    /**
+     * Возобновление обработки команд после того, как получатель снова готов
+     * принимать вывод.
+     */
+    void resume() {
+        if (!inbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Постановка стола в пул, если он ещё не стоит там. После остановки пула
+     * команды остаются в очереди необработанными.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Обработка пачки команд и передача накопленного текста получателю.
+     * Некорректная команда не останавливает стол: вместо ответа игры выводится ошибка.
+     */
+    private void drain() {
+        try {
+            if (!started) {
+                started = true;
+                game.gameInit();
+            }
+            for (int i = 0; i < BATCH_SIZE && sink.isReady(); i++) {
+                String command = inbox.poll();
+                if (command == null) {
+                    break;
+                }
+                try {
+                    game.gameInput(command);
+                } catch (RuntimeException e) {
+                    output.append(e.getMessage()).append('\n');
+                }
+            }
+            if (output.length() > 0) {
+                sink.accept(output);
+                output.setLength(0);
+            }
+            sink.drained();
+        } finally {
+            scheduled.set(false);
+            if (!inbox.isEmpty() && sink.isReady()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Получатель текста стола. Методы вызываются из потоков пула.
+     */
+    @FunctionalInterface
+    public interface Sink extends Consumer<CharSequence> {
+        /**
+         * Готовность принять ещё один блок вывода. Пока получатель не готов, стол
+         * не обрабатывает команды; когда готовность вернётся, нужно вызвать resume.
+         *
+         * @return true, если стол может обрабатывать команды.
+         */
+        default boolean isReady() {
+            return true;
+        }
+
+        /**
+         * Уведомление после каждой обработки пачки: в очереди команд стола
+         * могло освободиться место.
+         */
+        default void drained() {
+        }
+    }
+}
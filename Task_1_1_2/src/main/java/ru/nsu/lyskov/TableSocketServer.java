@@ -0,0 +1,328 @@
+package ru.nsu.lyskov;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сетевой вход сервера столов на петлевом интерфейсе (127.0.0.1).
+ * Протокол строковый, в UTF-8: каждое соединение - отдельный стол; первая строка
+ * клиента - название локали, далее по строке на ход ("0" или "1"). Сервер отвечает
+ * блоками текста игры, каждый блок заканчивается символом END_OF_BLOCK.
+ * Все соединения обслуживает один поток с Selector на неблокирующих каналах,
+ * а игра идёт в пуле TableServer. Блоки вывода стола ставятся в очередь соединения;
+ * пока в ней MAX_QUEUED_BLOCKS блоков, стол не берёт новые команды, а пока заполнена
+ * очередь команд стола, из сокета не читается. Так медленный клиент тормозит только
+ * свой стол и не занимает потоки пула.
+ */
+public class TableSocketServer implements AutoCloseable {
+    /**
+     * Символ конца блока вывода (EOT).
+     */
+    public static final char END_OF_BLOCK = '\u0004';
+
+    /**
+     * Наибольшее количество неотправленных блоков вывода одного соединения.
+     */
+    static final int MAX_QUEUED_BLOCKS = 4;
+
+    /**
+     * Размер буфера чтения соединения; более длинная строка закрывает соединение.
+     */
+    private static final int LINE_BUFFER = 4096;
+
+    private final TableServer tableServer;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    /**
+     * Запуск приёма соединений.
+     *
+     * @param tableServer Сервер, на котором открываются столы.
+     * @param port        Порт (0 - любой свободный).
+     * @throws IOException Не удалось открыть порт.
+     */
+    public TableSocketServer(TableServer tableServer, int port) throws IOException {
+        this.tableServer = tableServer;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        loop = new Thread(this::selectLoop, "table-selector");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Цикл событий: задачи от потоков пула (отправка вывода, продолжение чтения),
+     * затем готовые каналы. По завершении закрывает все соединения.
+     */
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isWritable()) {
+                        connection.flush();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        connection.read();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Selector закрыт или сломан: сервер прекращает работу.
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Соединения уже закрыты.
+            }
+        }
+    }
+
+    /**
+     * Приём всех ожидающих соединений.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    /**
+     * Передача задачи потоку Selector.
+     */
+    private void submit(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Соединение со своим столом. Поля без volatile меняются только потоком Selector;
+     * accept, isReady и drained вызываются из потоков пула.
+     */
+    private final class Connection implements TableSession.Sink {
+        private final SocketChannel channel;
+        private final ByteBuffer input = ByteBuffer.allocate(LINE_BUFFER);
+        private final Queue<ByteBuffer> outgoing = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private SelectionKey key;
+        private TableSession session;
+        private volatile boolean paused = false;
+        private volatile boolean closed = false;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Чтение из сокета и передача полученных строк столу.
+         */
+        void read() {
+            int count;
+            try {
+                count = channel.read(input);
+            } catch (IOException e) {
+                count = -1;
+            }
+            if (count < 0) {
+                close();
+                return;
+            }
+            if (!deliver()) {
+                return;
+            }
+            if (!paused && !input.hasRemaining()) {
+                close();
+            }
+        }
+
+        /**
+         * Разбор полных строк буфера чтения. Строка, не принятая столом, остаётся
+         * в буфере, и чтение из сокета приостанавливается до вызова drained.
+         *
+         * @return false, если соединение закрыто.
+         */
+        private boolean deliver() {
+            input.flip();
+            int start = input.position();
+            for (int i = start; i < input.limit(); i++) {
+                if (input.get(i) != '\n') {
+                    continue;
+                }
+                int end = i > start && input.get(i - 1) == '\r' ? i - 1 : i;
+                String line = new String(input.array(), start, end - start,
+                        StandardCharsets.UTF_8);
+                if (session == null) {
+                    try {
+                        session = tableServer.open(line, this);
+                    } catch (RuntimeException e) {
+                        close();
+                        return false;
+                    }
+                } else if (!offer(line)) {
+                    break;
+                }
+                start = i + 1;
+            }
+            input.position(start);
+            input.compact();
+            key.interestOps(paused ? key.interestOps() & ~SelectionKey.OP_READ
+                    : key.interestOps() | SelectionKey.OP_READ);
+            return true;
+        }
+
+        /**
+         * Передача команды столу. Флаг paused ставится до повторной попытки, чтобы
+         * освобождение места между попытками не потерялось (см. drained).
+         */
+        private boolean offer(String command) {
+            if (session.offer(command)) {
+                return true;
+            }
+            paused = true;
+            if (session.offer(command)) {
+                paused = false;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Отправка очереди вывода, пока сокет принимает данные. После отправки блока
+         * стол возобновляется: он мог остановиться на заполненной очереди.
+         */
+        void flush() {
+            boolean sent = false;
+            ByteBuffer block;
+            try {
+                while ((block = outgoing.peek()) != null) {
+                    channel.write(block);
+                    if (block.hasRemaining()) {
+                        break;
+                    }
+                    outgoing.poll();
+                    queued.decrementAndGet();
+                    sent = true;
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            key.interestOps(block != null ? key.interestOps() | SelectionKey.OP_WRITE
+                    : key.interestOps() & ~SelectionKey.OP_WRITE);
+            if (sent && queued.get() < MAX_QUEUED_BLOCKS) {
+                session.resume();
+            }
+        }
+
+        /**
+         * Закрытие соединения. Стол дорабатывает принятые команды, вывод отбрасывается.
+         */
+        void close() {
+            closed = true;
+            outgoing.clear();
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Соединение уже разорвано.
+            }
+        }
+
+        @Override
+        public void accept(CharSequence text) {
+            if (closed) {
+                return;
+            }
+            outgoing.add(ByteBuffer.wrap((text.toString() + END_OF_BLOCK)
+                    .getBytes(StandardCharsets.UTF_8)));
+            queued.incrementAndGet();
+            submit(() -> {
+                if (!closed) {
+                    flush();
+                }
+            });
+        }
+
+        @Override
+        public boolean isReady() {
+            return closed || queued.get() < MAX_QUEUED_BLOCKS;
+        }
+
+        @Override
+        public void drained() {
+            if (paused) {
+                submit(() -> {
+                    paused = false;
+                    if (!closed && deliver() && !paused && !input.hasRemaining()) {
+                        close();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Прекращение приёма соединений и закрытие всех соединений.
+     *
+     * @throws IOException Ошибка закрытия сокета.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        serverChannel.close();
+    }
+}
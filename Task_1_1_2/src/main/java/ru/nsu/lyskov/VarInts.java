@@ -0,0 +1,88 @@
+package ru.nsu.lyskov;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Кодирование неотрицательных int переменной длины (varint, как в protobuf):
+ * по 7 бит в байте, старший бит - признак продолжения. Числа до 127
+ * занимают один байт.
+ */
+final class VarInts {
+    /**
+     * Конструктор приватный: класс содержит только статичные методы.
+     */
+    private VarInts() {
+    }
+
+    /**
+     * Запись числа в поток байт.
+     *
+     * @param out   Поток.
+     * @param value Неотрицательное число.
+     */
+    static void write(ByteArrayOutputStream out, int value) {
+        checkNotNegative(value);
+        while (value >= 0x80) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Запись числа в буфер.
+     *
+     * @param out   Буфер.
+     * @param value Неотрицательное число.
+     */
+    static void write(ByteBuffer out, int value) {
+        checkNotNegative(value);
+        while (value >= 0x80) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Чтение числа из буфера.
+     *
+     * @param in Буфер.
+     * @return Число.
+     */
+    static int read(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Количество байт в записи числа.
+     *
+     * @param value Неотрицательное число.
+     * @return От 1 до 5.
+     */
+    static int size(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Проверка, что число неотрицательно.
+     */
+    private static void checkNotNegative(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Varint must not be negative");
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package ru.nsu.lyskov;
 
+import java.util.List;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 class AbstractPlayerTest {
@@ -20,10 +26,84 @@ class AbstractPlayerTest {
         player.takeCard(card);
         card = new Card(12, 4);
         player.takeCard(card);
-        assertEquals(4, player.getHand().size());
+        assertEquals(4, player.getCards().size());
         assertEquals(15, player.getScore());
 
         player.foldCards();
         assertEquals(0, player.getScore());
     }
-}
\ No newline at end of file
+
+    /**
+     * Инкрементальный подсчёт сверяется с прежним двухпроходным пересчётом
+     * по руке, включая очки тузов.
+     */
+    @Test
+    void testIncrementalScore() {
+        Random random = new Random(11);
+        for (int round = 0; round < 1000; round++) {
+            player.foldCards();
+            int cards = 1 + random.nextInt(8);
+            for (int i = 0; i < cards; i++) {
+                player.takeCard(new Card(1 + random.nextInt(13), 1 + random.nextInt(4)));
+                List<Card> hand = player.getCards();
+                int score = 0;
+                for (int j = 0; j < hand.size(); j++) {
+                    if (hand.get(j).getValue() >= 2) {
+                        score += player.getCardScore(j);
+                    }
+                }
+                for (int j = 0; j < hand.size(); j++) {
+                    if (hand.get(j).getValue() == 1) {
+                        int aceScore = score <= 10 ? 11 : 1;
+                        assertEquals(aceScore, player.getCardScore(j));
+                        score += aceScore;
+                    }
+                }
+                assertEquals(score, player.getScore());
+            }
+        }
+    }
+
+    /**
+     * Рука - представление ячеек игрока: открытие карты дилером видно через getCards().
+     */
+    @Test
+    void testHandView() {
+        Dealer dealer = new Dealer();
+        List<Card> hand = dealer.getCards();
+        dealer.takeCard(Card.of(Card.codeOf(1, 1), true));
+        dealer.takeCard(Card.of(Card.codeOf(1, 2), false));
+        assertEquals(1, dealer.getClosedCardIndex());
+        assertEquals(Card.of(Card.codeOf(1, 2), true), dealer.openClosedCard());
+        assertSame(Card.of(Card.codeOf(1, 2), true), hand.get(1));
+        assertEquals(11, dealer.getCardScore(0));
+        assertEquals(1, dealer.getCardScore(1));
+        assertThrows(UnsupportedOperationException.class, () -> hand.add(Card.fromCode(0)));
+        dealer.foldCards();
+        assertTrue(hand.isEmpty());
+    }
+
+    /**
+     * Устаревшие методы прежнего API: копия руки, открытие собственной карты,
+     * очки карты без учёта руки.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    void testDeprecatedApi() {
+        Card ace = new Card(1, 3);
+        player.takeCard(ace);
+        player.takeCard(new Card(5, 1));
+        List<Card> copy = player.getHand();
+        assertEquals(player.getCards(), copy);
+        copy.clear();
+        assertEquals(2, player.getCards().size());
+
+        assertFalse(ace.isOpen());
+        ace.open();
+        assertTrue(ace.isOpen());
+        assertThrows(UnsupportedOperationException.class, () -> Card.fromCode(0).open());
+        assertEquals(1, ace.getCardScore());
+        assertEquals(11, player.getCardScore(0));
+        assertThrows(UnsupportedOperationException.class, () -> ace.setCardScore(11));
+    }
+}
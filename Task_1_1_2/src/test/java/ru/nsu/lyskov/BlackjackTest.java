@@ -1,6 +1,10 @@
 package ru.nsu.lyskov;
 
+import java.io.StringWriter;
 import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 class BlackjackTest {
@@ -29,4 +33,46 @@ class BlackjackTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Текст игры пишется прямо во внешний поток; с SILENT игра идёт без вывода.
+     */
+    @Test
+    void streamingOutput() {
+        StringWriter writer = new StringWriter();
+        Blackjack blackjack = new Blackjack("en", writer);
+        blackjack.gameInit();
+        blackjack.gameInput("0");
+        String text = writer.toString();
+        assertTrue(text.startsWith("Welcome to Blackjack!\nRound 1\n"));
+        assertTrue(text.contains("The dealer opened a closed card"));
+
+        Blackjack silent = new Blackjack("ru", GameRenderer.SILENT);
+        silent.gameInit();
+        for (int i = 0; i < 1000; i++) {
+            silent.gameInput(String.valueOf(random.nextInt(2)));
+        }
+    }
+
+    /**
+     * Игры на шузах с одинаковым зерном при одинаковых ходах дают одинаковый текст;
+     * шуз из 6 колод с подрезной картой перетасовывается без переполнения.
+     */
+    @Test
+    void seededDeck() {
+        String[] texts = new String[3];
+        for (int i = 0; i < texts.length; i++) {
+            StringWriter writer = new StringWriter();
+            Blackjack blackjack = new Blackjack("en", writer,
+                    new Deck(6, 0.75, "L64X128MixRandom", i < 2 ? 7 : 8));
+            blackjack.gameInit();
+            Random moves = new Random(3);
+            for (int j = 0; j < 2000; j++) {
+                blackjack.gameInput(String.valueOf(moves.nextInt(2)));
+            }
+            texts[i] = writer.toString();
+        }
+        assertEquals(texts[0], texts[1]);
+        assertNotEquals(texts[0], texts[2]);
+    }
+}
@@ -1,8 +1,21 @@
 package ru.nsu.lyskov;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 class DeckTest {
+    private static final String[] ALGORITHMS = {
+        "L64X128MixRandom", "Xoshiro256PlusPlus", "SplittableRandom", "Random"
+    };
+
     private final Deck deck = new Deck();
 
     @Test
@@ -38,4 +51,147 @@ class DeckTest {
             System.out.println("Got expected exception 4/4");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Шуз из 6 колод: каждая карта встречается 6 раз, подрезная карта
+     * достигается после сдачи 75% шуза, после опустошения шуз собирается заново.
+     */
+    @Test
+    void testShoe() {
+        Deck shoe = new Deck(6, 0.75);
+        assertEquals(312, shoe.remaining());
+        int[] counts = new int[Card.CODES];
+        for (int i = 0; i < 234; i++) {
+            assertFalse(shoe.isCutCardReached());
+            counts[shoe.drawCode()]++;
+        }
+        assertTrue(shoe.isCutCardReached());
+        for (int i = 234; i < 312; i++) {
+            counts[shoe.drawCode()]++;
+        }
+        for (int count : counts) {
+            assertEquals(6, count);
+        }
+        assertEquals(0, shoe.remaining());
+
+        shoe.drawCode();
+        assertEquals(311, shoe.remaining());
+        assertFalse(shoe.isCutCardReached());
+        shoe.reshuffle();
+        assertEquals(312, shoe.remaining());
+
+        assertThrows(IllegalArgumentException.class, () -> new Deck(0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new Deck(1, 1.5));
+    }
+
+    @Test
+    void testCardCodes() {
+        for (int code = 0; code < Card.CODES; code++) {
+            Card card = Card.fromCode(code);
+            assertEquals(code, card.getCode());
+            assertEquals(code, Card.codeOf(card.getValue(), card.getSuit()));
+            assertEquals(Math.min(card.getValue(), 10), Card.scoreOf(code));
+        }
+        assertThrows(RuntimeException.class, () -> Card.fromCode(52));
+    }
+
+    /**
+     * Колода выдаёт общие экземпляры карт: в каждой раздаче - одни и те же 104 объекта.
+     * Генератор с фиксированным зерном: при нём 520 карт покрывают все 104 экземпляра.
+     */
+    @Test
+    void testCardFlyweight() {
+        assertSame(Card.of(7, true), Card.fromCode(7).opened());
+        assertSame(Card.fromCode(7), Card.of(7, false));
+        assertEquals(new Card(8, 1), Card.fromCode(7));
+        assertFalse(Card.fromCode(7).isOpen());
+
+        Set<Card> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deck shoe = new Deck(2, 1.0, "L64X128MixRandom", 1);
+        for (int i = 0; i < 10 * Card.CODES; i++) {
+            instances.add(shoe.removeCard(i % 2 == 0));
+        }
+        assertEquals(2 * Card.CODES, instances.size());
+    }
+
+    /**
+     * Генератор выбирается по имени алгоритма; одинаковое зерно - одинаковые тасовки.
+     */
+    @Test
+    void testSeededGenerators() {
+        for (String algorithm : ALGORITHMS) {
+            Deck first = new Deck(2, 0.5, algorithm, 17);
+            Deck second = new Deck(2, 0.5, algorithm, 17);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(first.drawCode(), second.drawCode());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new Deck(1, 1.0, "NoSuchRandom", 1));
+    }
+
+    /**
+     * Равномерность тасовки по критерию хи-квадрат: для каждой пары (карта, позиция)
+     * частота должна быть близка к shuffles / 52. У статистики 51 * 51 степеней
+     * свободы, порог - шесть стандартных отклонений от среднего. Зёрна фиксированы,
+     * поэтому тест детерминирован.
+     */
+    @Test
+    void testShuffleUniformity() {
+        int shuffles = 20000;
+        for (String algorithm : ALGORITHMS) {
+            Deck shoe = new Deck(1, 1.0, algorithm, 2024);
+            long[][] counts = new long[Card.CODES][Card.CODES];
+            for (int i = 0; i < shuffles; i++) {
+                shoe.reshuffle();
+                for (int position = 0; position < Card.CODES; position++) {
+                    counts[shoe.drawCode()][position]++;
+                }
+            }
+            double deviation = deviation(counts, shuffles);
+            assertTrue(Math.abs(deviation) < 6, algorithm + ": " + deviation + " sigma");
+        }
+    }
+
+    /**
+     * Смещённая тасовка (обмен с любой позицией колоды вместо [0, i]) этим
+     * критерием отвергается.
+     */
+    @Test
+    void testBiasedShuffleRejected() {
+        int shuffles = 20000;
+        SplittableRandom random = new SplittableRandom(2024);
+        long[][] counts = new long[Card.CODES][Card.CODES];
+        byte[] cards = new byte[Card.CODES];
+        for (int i = 0; i < shuffles; i++) {
+            for (int code = 0; code < Card.CODES; code++) {
+                cards[code] = (byte) code;
+            }
+            for (int j = Card.CODES - 1; j > 0; j--) {
+                int k = random.nextInt(Card.CODES);
+                byte swap = cards[j];
+                cards[j] = cards[k];
+                cards[k] = swap;
+            }
+            for (int position = 0; position < Card.CODES; position++) {
+                counts[cards[position]][position]++;
+            }
+        }
+        assertTrue(deviation(counts, shuffles) > 6);
+    }
+
+    /**
+     * Отклонение статистики хи-квадрат таблицы частот (карта, позиция) от её
+     * среднего, в стандартных отклонениях.
+     */
+    private static double deviation(long[][] counts, int shuffles) {
+        double expected = (double) shuffles / Card.CODES;
+        double chiSquare = 0;
+        for (long[] row : counts) {
+            for (long count : row) {
+                chiSquare += (count - expected) * (count - expected) / expected;
+            }
+        }
+        int freedom = (Card.CODES - 1) * (Card.CODES - 1);
+        return (chiSquare - freedom) / Math.sqrt(2.0 * freedom);
+    }
+}
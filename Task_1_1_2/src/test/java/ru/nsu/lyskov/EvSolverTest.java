@@ -0,0 +1,111 @@
+package ru.nsu.lyskov;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class EvSolverTest {
+    private final EvSolver solver = new EvSolver(1);
+
+    @Test
+    void dealerOutcomes() {
+        for (int upCard = 1; upCard <= 10; upCard++) {
+            double[] outcomes = solver.dealerOutcomes(upCard);
+            double sum = 0;
+            for (int total = 0; total < 17; total++) {
+                assertEquals(0.0, outcomes[total]);
+            }
+            for (double probability : outcomes) {
+                sum += probability;
+            }
+            assertEquals(1.0, sum, 1e-12);
+        }
+        // Под тузом дилера 16 десяток из 51 карты дают 21 уже в двух картах.
+        assertTrue(solver.dealerOutcomes(1)[21] > 16.0 / 51);
+    }
+
+    @Test
+    void decisions() {
+        assertTrue(solver.shouldHit(10, 2, 3));
+        assertFalse(solver.shouldHit(6, 10, 10));
+        // С 20 в руке добор туза (4 из 49 карт) - победа, любой другой карты - перебор.
+        assertEquals((4 - 45) / 49.0, solver.hitEv(10, 10, 10), 1e-12);
+        // На 21 игрок выигрывает, если закрытая карта дилера не туз (3 из 49 карт).
+        assertEquals(1.0 - 3.0 / 49, solver.standEv(10, 1, 10), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> solver.standEv(10, 10, 10, 5));
+        assertThrows(IllegalArgumentException.class, () -> new EvSolver(16));
+    }
+
+    /**
+     * Кэш добора дилера общий для всех остановок: после полного расчёта EV остановки
+     * совпадает с EV из распределения сумм дилера (считается без кэша) для шуза
+     * без карт игрока.
+     */
+    @Test
+    void sharedDealerCache() {
+        solver.expectedValue();
+        for (int upCard = 1; upCard <= 10; upCard++) {
+            for (int first = 1; first <= 10; first++) {
+                for (int second = first; second <= 10; second++) {
+                    int[] rankCounts = new int[10];
+                    for (int rank = 1; rank <= 10; rank++) {
+                        rankCounts[rank - 1] = count(rank, (first == rank ? 1 : 0)
+                                + (second == rank ? 1 : 0));
+                    }
+                    int playerScore = AbstractPlayer.score(
+                            (first == 1 ? 0 : first) + (second == 1 ? 0 : second),
+                            (first == 1 ? 1 : 0) + (second == 1 ? 1 : 0));
+                    if (playerScore == 21 || rankCounts[upCard - 1] == 0) {
+                        continue;
+                    }
+                    double[] outcomes = new EvSolver(rankCounts).dealerOutcomes(upCard);
+                    double expected = outcomes[22] - outcomes[21];
+                    for (int total = 0; total < 21; total++) {
+                        expected += Integer.signum(playerScore - total) * outcomes[total];
+                    }
+                    assertEquals(expected, solver.standEv(upCard, first, second), 1e-12);
+                }
+            }
+        }
+    }
+
+    /**
+     * EV стратегии "всегда стоять" из точных EV остановки сверяется с симуляцией
+     * на шузе из одной колоды, перетасовываемом перед каждым раундом. Генератор
+     * с фиксированным зерном, допуск - 5 стандартных ошибок: тест детерминирован.
+     */
+    @Test
+    void matchesSimulation() {
+        double expected = 0;
+        for (int first = 1; first <= 10; first++) {
+            for (int upCard = 1; upCard <= 10; upCard++) {
+                for (int second = 1; second <= 10; second++) {
+                    double probability = count(first, 0) / 52.0
+                            * count(upCard, first == upCard ? 1 : 0) / 51.0
+                            * count(second, (first == second ? 1 : 0)
+                            + (upCard == second ? 1 : 0)) / 50.0;
+                    if (probability > 0) {
+                        expected += probability * solver.standEv(upCard, first, second);
+                    }
+                }
+            }
+        }
+        SimulationResult result = new Simulator(new Deck(1, 0.01, "L64X128MixRandom", 1))
+                .run((playerScore, dealerUpScore) -> false, 400_000);
+        double simulated = -result.getHouseEdge();
+        double sigma = result.getHouseEdgeError() / 1.96;
+        assertEquals(expected, simulated, 5 * sigma);
+
+        double optimal = solver.expectedValue();
+        assertTrue(optimal > expected && optimal < 0.5);
+    }
+
+    /**
+     * Количество карт ранга в колоде без removed уже вынутых карт этого ранга.
+     */
+    private static int count(int rank, int removed) {
+        return (rank == 10 ? 16 : 4) - removed;
+    }
+}
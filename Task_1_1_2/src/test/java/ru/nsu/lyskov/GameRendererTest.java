@@ -0,0 +1,34 @@
+package ru.nsu.lyskov;
+
+import java.util.Locale;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class GameRendererTest {
+
+    @Test
+    void cardsAndHands() {
+        StringBuilder out = new StringBuilder();
+        GameRenderer renderer = new GameRenderer(Locale.ENGLISH, out);
+        Dealer dealer = new Dealer();
+        dealer.takeCard(new Card(1, 3));
+        dealer.takeCard(new Card(10, 4));
+        renderer.hand(dealer);
+        assertEquals("[<Closed card>, <Closed card>]", out.toString());
+
+        out.setLength(0);
+        dealer.openClosedCard();
+        dealer.openClosedCard();
+        renderer.hand(dealer).text(" ").message("Round").text(" ").number(2);
+        assertEquals("[Ace Hearts (11), Ten Spades (10)] -> 21 Round 2", out.toString());
+    }
+
+    @Test
+    void silent() {
+        GameRenderer renderer = new GameRenderer(Locale.ENGLISH, GameRenderer.SILENT);
+        assertEquals(false, renderer.isEnabled());
+        Dealer dealer = new Dealer();
+        dealer.takeCard(Card.of(Card.codeOf(2, 1), true));
+        renderer.message("Greeting").number(1).card(dealer, 0).hand(dealer);
+    }
+}
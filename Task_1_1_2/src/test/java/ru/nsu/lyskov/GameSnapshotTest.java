@@ -0,0 +1,60 @@
+package ru.nsu.lyskov;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class GameSnapshotTest {
+
+    /**
+     * Восстановленная игра совпадает с исходной и продолжается так же:
+     * одинаковые ходы дают одинаковый текст и одинаковые снимки (пока шуз
+     * не закончился: новую тасовку каждая игра делает своим генератором).
+     */
+    @Test
+    void roundTrip() {
+        StringBuilder liveText = new StringBuilder();
+        Blackjack live = new Blackjack("en", liveText);
+        live.gameInit();
+        live.gameInput("1");
+        live.gameInput("0");
+        byte[] snapshot = GameSnapshot.save(live);
+        assertTrue(snapshot.length < 80);
+
+        StringBuilder restoredText = new StringBuilder();
+        Blackjack restored = GameSnapshot.restore(snapshot, "en", restoredText);
+        assertArrayEquals(snapshot, GameSnapshot.save(restored));
+
+        liveText.setLength(0);
+        for (int i = 0; i < 5; i++) {
+            live.gameInput("1");
+            restored.gameInput("1");
+        }
+        assertEquals(liveText.toString(), restoredText.toString());
+        assertArrayEquals(GameSnapshot.save(live), GameSnapshot.save(restored));
+    }
+
+    /**
+     * Повреждённые снимки отклоняются.
+     */
+    @Test
+    void invalidSnapshot() {
+        Blackjack game = new Blackjack("en", GameRenderer.SILENT);
+        game.gameInit();
+        byte[] snapshot = GameSnapshot.save(game);
+
+        byte[] wrongVersion = snapshot.clone();
+        wrongVersion[0] = 2;
+        assertThrows(IllegalArgumentException.class,
+                () -> GameSnapshot.restore(wrongVersion, "en", GameRenderer.SILENT));
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length - 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> GameSnapshot.restore(truncated, "en", GameRenderer.SILENT));
+        byte[] extended = Arrays.copyOf(snapshot, snapshot.length + 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> GameSnapshot.restore(extended, "en", GameRenderer.SILENT));
+    }
+}
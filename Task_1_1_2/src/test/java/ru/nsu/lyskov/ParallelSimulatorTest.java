@@ -0,0 +1,49 @@
+package ru.nsu.lyskov;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.junit.jupiter.api.Test;
+
+class ParallelSimulatorTest {
+
+    /**
+     * Результат при одинаковом зерне не зависит от числа потоков.
+     */
+    @Test
+    void reproducible() {
+        long rounds = 5 * ParallelSimulator.BATCH_ROUNDS + 123;
+        Strategy strategy = Strategy.standOn(17);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            SimulationResult first = new ParallelSimulator(6, 0.75, single)
+                    .run(strategy, rounds, 42);
+            SimulationResult second = new ParallelSimulator(6, 0.75, quad)
+                    .run(strategy, rounds, 42);
+            SimulationResult other = new ParallelSimulator(6, 0.75, quad)
+                    .run(strategy, rounds, 43);
+            assertEquals(rounds, first.getRounds());
+            assertEquals(first.getWins(), second.getWins());
+            assertEquals(first.getLosses(), second.getLosses());
+            assertNotEquals(first.getWins(), other.getWins());
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+        assertEquals(0, new ParallelSimulator(1, 1.0).run(strategy, 0, 1).getRounds());
+    }
+
+    /**
+     * Шуз с генератором с фиксированным зерном тасуется одинаково.
+     */
+    @Test
+    void seededDeck() {
+        Deck first = new Deck(2, 1.0, new SplittableRandom(7));
+        Deck second = new Deck(2, 1.0, new SplittableRandom(7));
+        for (int i = 0; i < 300; i++) {
+            assertEquals(first.drawCode(), second.drawCode());
+        }
+    }
+}
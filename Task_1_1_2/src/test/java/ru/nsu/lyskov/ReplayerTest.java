@@ -0,0 +1,104 @@
+package ru.nsu.lyskov;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayerTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Партия с множеством тасовок шуза воспроизводится по журналу полностью
+     * и до начала любого раунда. Недопустимый ввод в журнал не попадает.
+     */
+    @Test
+    void replay() throws IOException {
+        Path file = directory.resolve("game.journal");
+        Blackjack live = new Blackjack("en", GameRenderer.SILENT);
+        List<byte[]> roundStarts = new ArrayList<>();
+        Random random = new Random(7);
+        try (MoveJournal journal = new MoveJournal(file)) {
+            JournaledGame game = new JournaledGame(live, journal);
+            game.gameInit();
+            roundStarts.add(GameSnapshot.save(live));
+            for (int i = 0; i < 3000; i++) {
+                int round = live.getRound();
+                game.gameInput(random.nextInt(3) == 0 ? "0" : "1");
+                if (live.getRound() != round) {
+                    roundStarts.add(GameSnapshot.save(live));
+                }
+            }
+            assertThrows(RuntimeException.class, () -> game.gameInput("2"));
+        }
+        assertArrayEquals(GameSnapshot.save(live), GameSnapshot.save(Replayer.replay(file)));
+
+        for (int round = 1; round <= roundStarts.size(); round += 97) {
+            Blackjack replayed = Replayer.replay(file, round, "en", GameRenderer.SILENT);
+            assertEquals(round, replayed.getRound());
+            assertArrayEquals(roundStarts.get(round - 1), GameSnapshot.save(replayed));
+        }
+    }
+
+    /**
+     * Воспроизведение с выводом даёт тот же текст, что и исходная партия.
+     */
+    @Test
+    void replayText() throws IOException {
+        Path file = directory.resolve("text.journal");
+        StringBuilder liveText = new StringBuilder();
+        try (MoveJournal journal = new MoveJournal(file)) {
+            JournaledGame game = new JournaledGame(new Blackjack("ru", liveText), journal);
+            game.gameInit();
+            liveText.setLength(0);
+            for (int i = 0; i < 200; i++) {
+                game.gameInput(i % 4 == 0 ? "0" : "1");
+            }
+        }
+        StringBuilder replayedText = new StringBuilder();
+        Replayer.replay(file, Integer.MAX_VALUE, "ru", replayedText);
+        assertEquals(liveText.toString(), replayedText.toString());
+    }
+
+    /**
+     * Недописанная при аварии запись (данные есть, тега ещё нет) и нулевой хвост
+     * необрезанного файла читаются как конец журнала.
+     */
+    @Test
+    void tornRecord() throws IOException {
+        Path file = directory.resolve("torn.journal");
+        Blackjack live = new Blackjack("en", GameRenderer.SILENT);
+        try (MoveJournal journal = new MoveJournal(file)) {
+            JournaledGame game = new JournaledGame(live, journal);
+            game.gameInit();
+            for (int i = 0; i < 30; i++) {
+                game.gameInput(i % 3 == 0 ? "0" : "1");
+            }
+        }
+        byte[] complete = Files.readAllBytes(file);
+        byte[] torn = Arrays.copyOf(complete, complete.length + 4096);
+        torn[complete.length + 1] = 1;
+        torn[complete.length + 2] = '1';
+        Files.write(file, torn);
+        assertArrayEquals(GameSnapshot.save(live), GameSnapshot.save(Replayer.replay(file)));
+    }
+
+    /**
+     * Журнал без снимка отклоняется.
+     */
+    @Test
+    void notAJournal() throws IOException {
+        Path file = directory.resolve("empty.journal");
+        Files.write(file, new byte[] {MoveJournal.MOVE, 1, '1'});
+        assertThrows(IllegalArgumentException.class, () -> Replayer.replay(file));
+    }
+}
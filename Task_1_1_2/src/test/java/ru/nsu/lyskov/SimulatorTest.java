@@ -0,0 +1,61 @@
+package ru.nsu.lyskov;
+
+import java.util.function.IntSupplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class SimulatorTest {
+    private static final Strategy STAND = (playerScore, dealerUpScore) -> false;
+
+    /**
+     * Источник карт, сдающий карты заданных ценностей по порядку
+     * (раздача: игрок, дилер, игрок, дилер, затем добор).
+     */
+    private static IntSupplier cards(int... values) {
+        int[] index = {0};
+        return () -> Card.codeOf(values[index[0]++], 1);
+    }
+
+    @Test
+    void playerTurn() {
+        assertEquals(1, Simulator.playRound(Strategy.standOn(21), cards(10, 10, 5, 1, 6)));
+        assertEquals(-1, Simulator.playRound(Strategy.standOn(21), cards(10, 10, 5, 9, 8)));
+        // Перебор игрока - поражение, даже если у дилера закрыт блэкджек.
+        assertEquals(-1, Simulator.playRound(Strategy.standOn(21), cards(10, 1, 5, 13, 8)));
+    }
+
+    @Test
+    void dealerTurn() {
+        assertEquals(1, Simulator.playRound(STAND, cards(10, 10, 1, 7)));
+        assertEquals(0, Simulator.playRound(STAND, cards(10, 10, 1, 1, 9)));
+        assertEquals(-1, Simulator.playRound(STAND, cards(10, 10, 9, 1)));
+        assertEquals(-1, Simulator.playRound(STAND, cards(10, 10, 9, 4, 7)));
+        assertEquals(1, Simulator.playRound(STAND, cards(10, 10, 9, 4, 9)));
+        assertEquals(0, Simulator.playRound(STAND, cards(10, 10, 8, 5, 3)));
+        assertEquals(1, Simulator.playRound(STAND, cards(10, 10, 9, 7)));
+        assertEquals(-1, Simulator.playRound(STAND, cards(10, 10, 6, 7)));
+    }
+
+    @Test
+    void score() {
+        assertEquals(21, AbstractPlayer.score(10, 1));
+        assertEquals(12, AbstractPlayer.score(0, 2));
+        assertEquals(22, AbstractPlayer.score(10, 2));
+        assertEquals(12, AbstractPlayer.score(11, 1));
+    }
+
+    /**
+     * Долгая симуляция: доли исходов в сумме дают 1, а игрок, который
+     * никогда не берёт карту, заметно проигрывает.
+     */
+    @Test
+    void run() {
+        Simulator simulator = new Simulator(new Deck(6, 0.75));
+        SimulationResult result = simulator.run(STAND, 200_000);
+        assertEquals(200_000, result.getRounds());
+        assertEquals(1.0, result.getWinRate() + result.getLossRate() + result.getPushRate(), 1e-9);
+        assertTrue(result.getHouseEdge() > 0.05);
+        assertTrue(result.getHouseEdgeError() > 0 && result.getHouseEdgeError() < 0.01);
+    }
+}
@@ -0,0 +1,175 @@
+package ru.nsu.lyskov;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class TableServerTest {
+
+    /**
+     * Сотни столов на двух потоках: каждый стол обрабатывает все свои команды.
+     * После каждого хода посылается некорректная команда "#", ответ на которую
+     * ("Wrong input") отмечает обработанный ход.
+     */
+    @Test
+    void manyTables() throws InterruptedException {
+        int tables = 300;
+        int moves = 50;
+        CountDownLatch done = new CountDownLatch(tables);
+        List<StringBuilder> outputs = new ArrayList<>();
+        try (TableServer server = new TableServer(2, 2 * moves)) {
+            List<TableSession> sessions = new ArrayList<>();
+            for (int i = 0; i < tables; i++) {
+                StringBuilder text = new StringBuilder();
+                outputs.add(text);
+                int[] moveCount = {0};
+                sessions.add(server.open(i % 2 == 0 ? "en" : "ru", block -> {
+                    text.append(block);
+                    moveCount[0] += count(block.toString(), "Wrong input");
+                    if (moveCount[0] == moves) {
+                        done.countDown();
+                    }
+                }));
+            }
+            for (int move = 0; move < moves; move++) {
+                for (TableSession session : sessions) {
+                    assertTrue(session.offer(move % 3 == 0 ? "0" : "1"));
+                    session.offer("#");
+                }
+            }
+            assertEquals(tables, server.getTableCount());
+            assertTrue(done.await(1, TimeUnit.MINUTES));
+        }
+        for (StringBuilder text : outputs) {
+            assertTrue(text.indexOf("1") >= 0);
+        }
+    }
+
+    /**
+     * Очередь стола ограничена: пока стол не обработан пулом, лишние команды отклоняются.
+     */
+    @Test
+    void boundedInbox() {
+        ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        TableSession session = new TableSession(0, output -> new Blackjack("en", output), 2,
+                pending::add, text -> { });
+        assertTrue(session.offer("1"));
+        assertTrue(session.offer("0"));
+        assertFalse(session.offer("1"));
+        assertEquals(1, pending.size());
+        pending.poll().run();
+        assertTrue(session.offer("1"));
+    }
+
+    /**
+     * Пока получатель не готов принять вывод, стол не берёт команды и не
+     * перезапускается сам; resume продолжает обработку.
+     */
+    @Test
+    void sinkBackpressure() {
+        ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        AtomicBoolean ready = new AtomicBoolean(true);
+        AtomicInteger blocks = new AtomicInteger();
+        TableSession session = new TableSession(0, output -> new Blackjack("en", output), 4,
+                pending::add, new TableSession.Sink() {
+                    @Override
+                    public void accept(CharSequence text) {
+                        blocks.incrementAndGet();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return ready.get();
+                    }
+                });
+        pending.poll().run();
+        assertEquals(1, blocks.get());
+        ready.set(false);
+        assertTrue(session.offer("1"));
+        pending.poll().run();
+        assertEquals(1, blocks.get());
+        assertTrue(pending.isEmpty());
+        ready.set(true);
+        session.resume();
+        pending.poll().run();
+        assertEquals(2, blocks.get());
+    }
+
+    /**
+     * Клиент отправляет команды, не дожидаясь ответов: очередь стола мала,
+     * поэтому сервер приостанавливает чтение, но в итоге обрабатывает все команды.
+     */
+    @Test
+    void pipelined() throws Exception {
+        int commands = 100;
+        try (TableServer server = new TableServer(1, 2);
+             TableSocketServer front = new TableSocketServer(server, 0);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), front.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("en\n" + "#\n".repeat(commands)).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            socket.setSoTimeout((int) TimeUnit.MINUTES.toMillis(1));
+            InputStream in = socket.getInputStream();
+            StringBuilder text = new StringBuilder();
+            byte[] buffer = new byte[4096];
+            while (count(text.toString(), "Wrong input") < commands) {
+                int read = in.read(buffer);
+                assertTrue(read > 0);
+                text.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            assertEquals(commands, count(text.toString(), "Wrong input"));
+        }
+    }
+
+    /**
+     * Ошибка клиента нагрузочного теста (здесь - порт без сервера) завершает run.
+     */
+    @Test
+    void failedClient() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = socket.getLocalPort();
+        }
+        IOException e = assertThrows(IOException.class,
+                () -> new LoadGenerator(port, 3, 5).run());
+        assertTrue(e.getCause() instanceof IOException);
+    }
+
+    @Test
+    void loopback() throws Exception {
+        try (TableServer server = new TableServer(2, 4);
+             TableSocketServer front = new TableSocketServer(server, 0)) {
+            LoadGenerator.Result result = new LoadGenerator(front.getPort(), 20, 30).run();
+            assertEquals(600, result.getMoves());
+            assertTrue(result.getLatency(0.99) >= result.getLatency(0.5));
+            assertTrue(result.getLatency(0.5) > 0);
+        }
+    }
+
+    /**
+     * Количество вхождений строки в текст.
+     */
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}